@@ -25,6 +25,7 @@ plugins {
     id("io.knotx.maven-publish")
     id("io.knotx.release-java")
     id("org.nosphere.apache.rat")
+    id("me.champeau.jmh")
 }
 
 repositories {
@@ -56,6 +57,9 @@ dependencies {
     testImplementation(group = "org.junit.jupiter", name = "junit-jupiter-api")
     testImplementation(group = "org.junit.jupiter", name = "junit-jupiter-params")
     testImplementation(group = "io.vertx", name = "vertx-unit")
+    testImplementation(group = "io.vertx", name = "vertx-core", classifier = "tests")
+
+    jmhImplementation(platform("io.knotx:knotx-dependencies:${project.version}"))
 }
 // -----------------------------------------------------------------------------
 // Source sets
@@ -77,6 +81,17 @@ sourceSets.named("test") {
     resources.srcDir("conf")
 }
 
+// -----------------------------------------------------------------------------
+// Benchmarks, run with `./gradlew jmh`
+// -----------------------------------------------------------------------------
+jmh {
+    jmhVersion.set("1.36")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+}
+
 // -----------------------------------------------------------------------------
 // Tasks
 // -----------------------------------------------------------------------------
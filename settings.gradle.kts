@@ -25,6 +25,7 @@ pluginManagement {
         id("io.knotx.maven-publish") version version
         id("io.knotx.release-java") version version
         id("org.nosphere.apache.rat") version "0.7.0"
+        id("me.champeau.jmh") version "0.6.8"
     }
     repositories {
         mavenLocal()
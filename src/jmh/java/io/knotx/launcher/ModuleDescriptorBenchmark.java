@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import io.vertx.core.json.JsonObject;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link ModuleDescriptor#fromConfig} for all modules of an instance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ModuleDescriptorBenchmark {
+
+  @Param({"100", "500"})
+  private int modules;
+
+  private JsonObject config;
+
+  @Setup
+  public void setup() {
+    JsonObject modulesJson = new JsonObject();
+    JsonObject modulesConfig = new JsonObject();
+    for (int i = 0; i < modules; i++) {
+      modulesJson.put("module" + i, "io.knotx.Module" + i);
+      modulesConfig.put("module" + i, new JsonObject()
+          .put("options", new JsonObject()
+              .put("instances", 2)
+              .put("required", i % 2 == 0)
+              .put("config", new JsonObject().put("address", "knotx.module." + i))));
+    }
+    config = new JsonObject().put("modules", modulesJson).put("config", modulesConfig);
+  }
+
+  @Benchmark
+  public void fromConfig(Blackhole blackhole) {
+    for (Map.Entry<String, Object> module : config.getJsonObject("modules")) {
+      blackhole.consume(
+          ModuleDescriptor.fromConfig(module.getKey(), (String) module.getValue(), config));
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Verticle;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.spi.VerticleFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the end-to-end deployment (and undeployment) of {@link KnotxStarterVerticle} with N
+ * no-op modules defined in a JSON store.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StarterDeploymentBenchmark {
+
+  private static final String NOOP_PREFIX = "noop";
+
+  @Param({"10", "100"})
+  private int modules;
+
+  private Vertx vertx;
+  private DeploymentOptions starterOptions;
+
+  @Setup
+  public void setup() {
+    vertx = Vertx.vertx();
+    vertx.registerVerticleFactory(new NoopVerticleFactory());
+
+    JsonObject modulesJson = new JsonObject();
+    for (int i = 0; i < modules; i++) {
+      modulesJson.put("module" + i, NOOP_PREFIX + ":module" + i);
+    }
+    JsonObject store = new JsonObject()
+        .put("type", "json")
+        .put("config", new JsonObject().put("modules", modulesJson));
+    starterOptions = new DeploymentOptions().setConfig(new JsonObject()
+        .put("configRetrieverOptions", new JsonObject()
+            .put("stores", new JsonArray().add(store))));
+  }
+
+  @TearDown
+  public void tearDown() {
+    vertx.close();
+  }
+
+  @Benchmark
+  public String deployAndUndeploy() {
+    CompletableFuture<String> result = new CompletableFuture<>();
+    vertx.deployVerticle(KnotxStarterVerticle.class.getName(),
+        new DeploymentOptions(starterOptions), deployed -> {
+          if (deployed.failed()) {
+            result.completeExceptionally(deployed.cause());
+          } else {
+            vertx.undeploy(deployed.result(), undeployed -> result.complete(deployed.result()));
+          }
+        });
+    return result.join();
+  }
+
+  private static class NoopVerticleFactory implements VerticleFactory {
+
+    @Override
+    public String prefix() {
+      return NOOP_PREFIX;
+    }
+
+    @Override
+    public Verticle createVerticle(String verticleName, ClassLoader classLoader) {
+      return new AbstractVerticle() {
+      };
+    }
+  }
+}
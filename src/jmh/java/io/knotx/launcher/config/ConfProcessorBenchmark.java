@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.config;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures {@link ConfProcessor#process} for small, large and include-heavy HOCON files. The
+ * <pre>process</pre> benchmark changes the input on each invocation, so the processed
+ * configuration cache is always missed, the <pre>processUnchanged</pre> benchmark processes the
+ * same input. Both reuse includes parsed by the previous invocations, the <pre>processCold</pre>
+ * benchmark clears the include cache before each invocation, so all includes are parsed again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConfProcessorBenchmark {
+
+  private static final int LARGE_MODULES = 2000;
+  private static final int INCLUDES = 50;
+
+  @Param({"small", "large", "includes"})
+  private String input;
+
+  private Vertx vertx;
+  private Path folder;
+  private ConfProcessor processor;
+  private JsonObject configuration;
+  private String content;
+  private long invocation;
+
+  @Setup
+  public void setup() throws IOException {
+    vertx = Vertx.vertx();
+    processor = new ConfProcessor();
+    folder = Files.createTempDirectory("knotx-conf-benchmark");
+    switch (input) {
+      case "small":
+        content = module(0);
+        break;
+      case "large":
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < LARGE_MODULES; i++) {
+          large.append(module(i));
+        }
+        content = large.toString();
+        break;
+      default:
+        StringBuilder main = new StringBuilder();
+        for (int i = 0; i < INCLUDES; i++) {
+          Files.write(folder.resolve("include" + i + ".conf"),
+              module(i).getBytes(StandardCharsets.UTF_8));
+          main.append("include required(\"include").append(i).append(".conf\")\n");
+        }
+        content = main.toString();
+    }
+    Path main = folder.resolve("application.conf");
+    Files.write(main, content.getBytes(StandardCharsets.UTF_8));
+    configuration = new JsonObject().put("path", main.toString());
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    vertx.close();
+    try (Stream<Path> files = Files.list(folder)) {
+      files.forEach(file -> file.toFile().delete());
+    }
+    Files.delete(folder);
+  }
+
+  @Benchmark
+  public JsonObject process() {
+    return process(Buffer.buffer(content + "\n# " + invocation++));
+  }
+
+  @Benchmark
+  public JsonObject processUnchanged() {
+    return process(Buffer.buffer(content));
+  }
+
+  @Benchmark
+  public JsonObject processCold(ColdIncludes coldIncludes) {
+    return process(Buffer.buffer(content + "\n# " + invocation++));
+  }
+
+  private JsonObject process(Buffer buffer) {
+    CompletableFuture<JsonObject> result = new CompletableFuture<>();
+    processor.process(vertx, configuration, buffer, ar -> {
+      if (ar.succeeded()) {
+        result.complete(ar.result());
+      } else {
+        result.completeExceptionally(ar.cause());
+      }
+    });
+    return result.join();
+  }
+
+  @State(Scope.Thread)
+  public static class ColdIncludes {
+
+    @Setup(Level.Invocation)
+    public void clearIncludeCache() {
+      ConfProcessor.clearIncludeCache();
+    }
+  }
+
+  private static String module(int index) {
+    return "modules.module" + index + " = \"io.knotx.Module" + index + "\"\n"
+        + "config.module" + index + ".options {\n"
+        + "  instances = 2\n"
+        + "  config {\n"
+        + "    address = \"knotx.module." + index + "\"\n"
+        + "    timeout = ${?module.timeout}\n"
+        + "    routes = [{ path = \"/a\", methods = [GET, POST] }, { path = \"/b\" }]\n"
+        + "    mapping { a = 1, b = 2.5, c = true, d = \"value\" }\n"
+        + "  }\n"
+        + "}\n";
+  }
+}
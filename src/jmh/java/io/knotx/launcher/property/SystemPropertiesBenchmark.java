@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.property;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures property lookups with many {@link SystemPropertyProvider}s, a present key is defined
+ * only in the last provider.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SystemPropertiesBenchmark {
+
+  private static final int PROPERTIES_PER_PROVIDER = 100;
+
+  @Param({"1", "10", "50"})
+  private int providers;
+
+  private SystemProperties systemProperties;
+  private String presentKey;
+
+  @Setup
+  public void setup() {
+    List<SystemPropertyProvider> allProviders = new ArrayList<>();
+    allProviders.add(new DefaultSystemPropertyProvider());
+    for (int i = 0; i < providers; i++) {
+      Properties properties = new Properties();
+      for (int j = 0; j < PROPERTIES_PER_PROVIDER; j++) {
+        properties.setProperty("provider" + i + ".key" + j, "value" + j);
+      }
+      allProviders.add(() -> properties);
+    }
+    systemProperties = new SystemProperties(allProviders);
+    presentKey = "provider" + (providers - 1) + ".key" + (PROPERTIES_PER_PROVIDER - 1);
+  }
+
+  @TearDown
+  public void tearDown() {
+    systemProperties.close();
+  }
+
+  @Benchmark
+  public void presentProperty(Blackhole blackhole) {
+    blackhole.consume(systemProperties.getProperty(presentKey));
+  }
+
+  @Benchmark
+  public void missingProperty(Blackhole blackhole) {
+    blackhole.consume(systemProperties.getProperty("not.existing.key"));
+  }
+}
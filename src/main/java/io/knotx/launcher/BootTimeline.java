@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects timings of the Knot.x instance start: reading the bootstrap configuration, parsing
+ * and resolving configuration stores and deploying modules. Each starter has its own timeline,
+ * created when the starter starts and kept in the Vert.x local shared data, so components
+ * without a reference to the starter (e.g. configuration processors) record to it too. All
+ * timings are in nanoseconds, start times are relative to the origin of the timeline. Once the
+ * start is completed, the timeline ignores all new entries, so configuration reloads do not
+ * extend it.
+ */
+public final class BootTimeline implements Shareable {
+
+  private static final String TIMELINES_MAP = "knotx.launcher.boot-timeline";
+  private static final String CURRENT_KEY = "current";
+  private static final String PREPARED_KEY = "prepared";
+
+  private final long originNanos;
+  private final List<JsonObject> phases = Collections.synchronizedList(new ArrayList<>());
+  private final List<JsonObject> modules = Collections.synchronizedList(new ArrayList<>());
+  private volatile boolean completed;
+  private volatile long jvmUptimeMillis;
+
+  private BootTimeline(long originNanos) {
+    this.originNanos = originNanos;
+  }
+
+  /**
+   * @param vertx - vertx instance
+   * @return timeline of the starter running on the Vert.x instance
+   */
+  public static BootTimeline get(Vertx vertx) {
+    return timelines(vertx)
+        .computeIfAbsent(CURRENT_KEY, key -> new BootTimeline(System.nanoTime()));
+  }
+
+  /**
+   * Prepares the timeline for the next starter deployed on the Vert.x instance, so phases that
+   * precede the deployment (e.g. reading the bootstrap configuration) are recorded too.
+   *
+   * @param vertx - vertx instance
+   * @param originNanos - origin of the timeline, a value of {@link System#nanoTime()}
+   * @return the prepared timeline
+   */
+  static BootTimeline prepare(Vertx vertx, long originNanos) {
+    BootTimeline timeline = new BootTimeline(originNanos);
+    timelines(vertx).put(PREPARED_KEY, timeline);
+    return timeline;
+  }
+
+  /**
+   * Starts the timeline of a starter, the prepared one or a new one, and makes it the timeline
+   * of the Vert.x instance.
+   *
+   * @param vertx - vertx instance
+   * @return timeline of the starter
+   */
+  static BootTimeline start(Vertx vertx) {
+    LocalMap<String, BootTimeline> timelines = timelines(vertx);
+    BootTimeline prepared = timelines.remove(PREPARED_KEY);
+    BootTimeline timeline = prepared != null ? prepared : new BootTimeline(System.nanoTime());
+    timelines.put(CURRENT_KEY, timeline);
+    return timeline;
+  }
+
+  private static LocalMap<String, BootTimeline> timelines(Vertx vertx) {
+    return vertx.sharedData().getLocalMap(TIMELINES_MAP);
+  }
+
+  /**
+   * Records the phase that started at <pre>startNanos</pre> and finished now.
+   *
+   * @param name - phase name
+   * @param startNanos - phase start, a value of {@link System#nanoTime()}
+   * @param details - additional phase details, e.g. a configuration file path
+   */
+  public void recordPhase(String name, long startNanos, JsonObject details) {
+    recordPhase(name, startNanos, System.nanoTime() - startNanos, details);
+  }
+
+  public void recordPhase(String name, long startNanos) {
+    recordPhase(name, startNanos, new JsonObject());
+  }
+
+  void recordPhase(String name, long startNanos, long durationNanos, JsonObject details) {
+    if (!completed) {
+      phases.add(new JsonObject()
+          .put("name", name)
+          .put("startNanos", startNanos - originNanos)
+          .put("durationNanos", durationNanos)
+          .put("details", details));
+    }
+  }
+
+  void recordModule(ModuleDescriptor module, long startNanos) {
+    if (!completed) {
+      modules.add(new JsonObject()
+          .put("alias", module.getAlias())
+          .put("name", module.getName())
+          .put("instances", module.getDeploymentOptions().getInstances())
+          .put("required", module.isRequired())
+          .put("state", module.getState().name())
+          .put("startNanos", startNanos - originNanos)
+          .put("durationNanos", module.getDeployDurationNanos()));
+    }
+  }
+
+  /**
+   * Marks the start as completed. All entries recorded later are ignored.
+   */
+  void complete() {
+    if (!completed) {
+      jvmUptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+      completed = true;
+    }
+  }
+
+  JsonObject toJson() {
+    synchronized (phases) {
+      synchronized (modules) {
+        return new JsonObject()
+            .put("completed", completed)
+            .put("jvmUptimeMillis", jvmUptimeMillis)
+            .put("phases", new JsonArray(new ArrayList<>(phases)))
+            .put("modules", new JsonArray(new ArrayList<>(modules)));
+      }
+    }
+  }
+}
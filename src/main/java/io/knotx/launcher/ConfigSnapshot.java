@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import com.google.common.hash.Hashing;
+import io.reactivex.Completable;
+import io.knotx.launcher.config.FileStamp;
+import io.reactivex.Maybe;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.reactivex.core.Vertx;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Snapshot of the fully resolved configuration stored in a file. The snapshot contains a
+ * fingerprint of its inputs: a hash of the configuration retriever options and modification
+ * stamps of all configuration files (stores and includes). The snapshot is valid only when the
+ * fingerprint matches the current inputs. Values of system properties are not part of the
+ * fingerprint, so a configuration loaded from the snapshot should be re-validated.
+ * <p>
+ * The resolved configuration contains values of system properties and property files (e.g.
+ * credentials) in plain text, so the snapshot file is readable and writable by its owner only
+ * (on file systems supporting POSIX permissions).
+ */
+class ConfigSnapshot {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConfigSnapshot.class);
+
+  private static final String CACHE_DIR_BASE_PROPERTY = "vertx.cacheDirBase";
+  private static final String DEFAULT_CACHE_DIR_BASE = ".vertx";
+  private static final String DEFAULT_SNAPSHOT_FILE = "knotx-config-snapshot.json";
+
+  private static final String OPTIONS_HASH_KEY = "optionsHash";
+  private static final String INPUTS_KEY = "inputs";
+  private static final String CONFIGURATION_KEY = "configuration";
+
+  private static final Set<PosixFilePermission> OWNER_ONLY =
+      PosixFilePermissions.fromString("rw-------");
+
+  private final Vertx vertx;
+  private final Path snapshotFile;
+  private final String optionsHash;
+
+  /**
+   * @param vertx - Vert.x instance
+   * @param snapshotFile - snapshot file path, if <pre>null</pre> then the snapshot is stored in
+   * the Vert.x cache directory base (<pre>vertx.cacheDirBase</pre> system property)
+   * @param retrieverOptions - configuration retriever options
+   */
+  ConfigSnapshot(Vertx vertx, String snapshotFile, JsonObject retrieverOptions) {
+    this.vertx = vertx;
+    this.snapshotFile = snapshotFile != null
+        ? Paths.get(snapshotFile)
+        : Paths.get(System.getProperty(CACHE_DIR_BASE_PROPERTY, DEFAULT_CACHE_DIR_BASE),
+            DEFAULT_SNAPSHOT_FILE);
+    this.optionsHash = Hashing.murmur3_128()
+        .hashString(retrieverOptions.encode(), StandardCharsets.UTF_8)
+        .toString();
+  }
+
+  /**
+   * @return the snapshot file, its temporary files are created in the same folder with the
+   * snapshot file name as a prefix
+   */
+  Path getSnapshotFile() {
+    return snapshotFile;
+  }
+
+  /**
+   * Loads the configuration from the snapshot.
+   *
+   * @return the configuration or empty result if there is no valid snapshot
+   */
+  Maybe<JsonObject> load() {
+    return vertx.rxExecuteBlocking(promise -> promise.complete(readValidConfiguration()), false);
+  }
+
+  /**
+   * Stores the configuration with the current fingerprint of the given inputs. Errors are
+   * logged only, the snapshot is an optimization.
+   *
+   * @param configuration - resolved configuration
+   * @param inputs - all configuration files the configuration was resolved from
+   * @return completes when the snapshot is stored or storing it failed
+   */
+  Completable save(JsonObject configuration, Collection<Path> inputs) {
+    return vertx.<Void>rxExecuteBlocking(promise -> {
+      try {
+        write(configuration, inputs);
+        promise.complete();
+      } catch (IOException e) {
+        promise.fail(e);
+      }
+    }, false)
+        .ignoreElement()
+        .doOnComplete(() -> LOGGER.debug("Configuration snapshot saved to {}", snapshotFile))
+        .doOnError(error -> LOGGER.warn("Unable to save configuration snapshot to {}",
+            snapshotFile, error))
+        .onErrorComplete();
+  }
+
+  private JsonObject readValidConfiguration() {
+    if (!Files.isRegularFile(snapshotFile)) {
+      LOGGER.info("Configuration snapshot {} not found", snapshotFile);
+      return null;
+    }
+    try {
+      JsonObject snapshot = new JsonObject(
+          new String(Files.readAllBytes(snapshotFile), StandardCharsets.UTF_8));
+      boolean valid = optionsHash.equals(snapshot.getString(OPTIONS_HASH_KEY))
+          && snapshot.getJsonArray(INPUTS_KEY, new JsonArray()).stream()
+          .map(JsonObject.class::cast)
+          .allMatch(ConfigSnapshot::isCurrent);
+      if (!valid) {
+        LOGGER.info("Configuration snapshot {} is outdated", snapshotFile);
+        return null;
+      }
+      return snapshot.getJsonObject(CONFIGURATION_KEY);
+    } catch (IOException | DecodeException | ClassCastException e) {
+      LOGGER.warn("Unable to read configuration snapshot {}", snapshotFile, e);
+      return null;
+    }
+  }
+
+  private void write(JsonObject configuration, Collection<Path> inputs) throws IOException {
+    JsonArray stamps = new JsonArray();
+    inputs.forEach(input -> stamps.add(FileStamp.of(input.toFile()).toJson()));
+    JsonObject snapshot = new JsonObject()
+        .put(OPTIONS_HASH_KEY, optionsHash)
+        .put(INPUTS_KEY, stamps)
+        .put(CONFIGURATION_KEY, configuration);
+
+    Path folder = snapshotFile.toAbsolutePath().getParent();
+    Files.createDirectories(folder);
+    Path tempFile = Files.createTempFile(folder, snapshotFile.getFileName().toString(), ".tmp");
+    if (Files.getFileStore(tempFile).supportsFileAttributeView(PosixFileAttributeView.class)) {
+      Files.setPosixFilePermissions(tempFile, OWNER_ONLY);
+    }
+    Files.write(tempFile, snapshot.encode().getBytes(StandardCharsets.UTF_8));
+    Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static boolean isCurrent(JsonObject stamp) {
+    return FileStamp.fromJson(stamp).isCurrent();
+  }
+}
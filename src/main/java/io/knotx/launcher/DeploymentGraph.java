@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Dependency graph of modules built from the <pre>options.dependsOn</pre> entries. Modules are
+ * grouped into topological levels: all dependencies of a module are placed in earlier levels, so
+ * modules within one level can be deployed concurrently. Modules within a level are ordered by
+ * alias, so the deployment order is deterministic.
+ */
+class DeploymentGraph {
+
+  private final List<List<ModuleDescriptor>> levels;
+
+  /**
+   * Builds the graph.
+   *
+   * @param modules - all modules of the instance
+   * @throws BadKnotxConfigurationException when a module depends on an undeclared module or when
+   * the dependencies form a cycle
+   */
+  DeploymentGraph(Collection<ModuleDescriptor> modules) {
+    Map<String, ModuleDescriptor> byAlias = new TreeMap<>();
+    modules.forEach(module -> byAlias.put(module.getAlias(), module));
+    validateDependencies(byAlias);
+    this.levels = Collections.unmodifiableList(computeLevels(byAlias));
+  }
+
+  List<List<ModuleDescriptor>> getLevels() {
+    return levels;
+  }
+
+  /**
+   * Gets levels limited to the given aliases. Dependencies on modules outside the given aliases
+   * are treated as already satisfied.
+   *
+   * @param aliases - aliases of modules to include
+   * @return non empty levels containing only the given modules
+   */
+  List<List<ModuleDescriptor>> getLevels(Set<String> aliases) {
+    return levels.stream()
+        .map(level -> level.stream()
+            .filter(module -> aliases.contains(module.getAlias()))
+            .collect(Collectors.toList()))
+        .filter(level -> !level.isEmpty())
+        .collect(Collectors.toList());
+  }
+
+  private static void validateDependencies(Map<String, ModuleDescriptor> byAlias) {
+    byAlias.values().forEach(module -> module.getDependsOn().forEach(dependency -> {
+      if (!byAlias.containsKey(dependency)) {
+        throw new BadKnotxConfigurationException(
+            "Module '" + module.getAlias() + "' depends on '" + dependency
+                + "' that is not defined in 'modules'");
+      }
+    }));
+  }
+
+  private static List<List<ModuleDescriptor>> computeLevels(
+      Map<String, ModuleDescriptor> byAlias) {
+    List<List<ModuleDescriptor>> result = new ArrayList<>();
+    Set<String> placed = new HashSet<>();
+    Map<String, ModuleDescriptor> remaining = new TreeMap<>(byAlias);
+    while (!remaining.isEmpty()) {
+      List<ModuleDescriptor> level = remaining.values().stream()
+          .filter(module -> placed.containsAll(module.getDependsOn()))
+          .collect(Collectors.toList());
+      if (level.isEmpty()) {
+        throw new BadKnotxConfigurationException(
+            "Cyclic dependency between modules " + remaining.keySet());
+      }
+      level.forEach(module -> {
+        placed.add(module.getAlias());
+        remaining.remove(module.getAlias());
+      });
+      result.add(Collections.unmodifiableList(level));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the module <pre>instances</pre> expressed relative to the number of available cores:
+ * <pre>cores</pre>, <pre>cores*2</pre>, <pre>cores/2</pre>, <pre>cores+1</pre>,
+ * <pre>cores-1</pre>, the factor may be a decimal number (e.g. <pre>cores*1.5</pre>). The result
+ * is rounded down and is at least 1.
+ */
+final class InstancesExpression {
+
+  private static final Pattern EXPRESSION = Pattern
+      .compile("^\\s*cores\\s*(?:([*/+-])\\s*(\\d+(?:\\.\\d+)?))?\\s*$");
+
+  private InstancesExpression() {
+    //util class
+  }
+
+  /**
+   * @param expression - instances expression
+   * @param cores - number of available cores
+   * @return number of instances
+   * @throws BadKnotxConfigurationException when the expression is not supported
+   */
+  static int resolve(String expression, int cores) {
+    Matcher matcher = EXPRESSION.matcher(expression);
+    if (!matcher.matches()) {
+      throw new BadKnotxConfigurationException("Unsupported instances expression '" + expression
+          + "', expected 'cores' optionally followed by *, /, + or - and a number");
+    }
+    double instances = cores;
+    if (matcher.group(1) != null) {
+      double operand = Double.parseDouble(matcher.group(2));
+      switch (matcher.group(1)) {
+        case "*":
+          instances = cores * operand;
+          break;
+        case "/":
+          if (operand == 0) {
+            throw new BadKnotxConfigurationException(
+                "Division by zero in instances expression '" + expression + "'");
+          }
+          instances = cores / operand;
+          break;
+        case "+":
+          instances = cores + operand;
+          break;
+        default:
+          instances = cores - operand;
+          break;
+      }
+    }
+    return Math.max(1, (int) Math.floor(instances));
+  }
+}
@@ -16,22 +16,30 @@
 package io.knotx.launcher;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
-import java.util.Scanner;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
 
 import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
 
+import io.netty.buffer.Unpooled;
+
+import io.vertx.core.AsyncResult;
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.cli.annotations.Description;
 import io.vertx.core.cli.annotations.Name;
 import io.vertx.core.cli.annotations.Option;
 import io.vertx.core.cli.annotations.Summary;
+import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.impl.launcher.VertxLifecycleHooks;
 import io.vertx.core.impl.launcher.commands.BareCommand;
@@ -50,8 +58,15 @@ public class KnotxCommand extends BareCommand {
 
   private static final String DEFAULT_LOADER_FILE = "bootstrap.json";
 
+  /**
+   * Time the starter gets to reply on top of the shutdown timeout
+   */
+  private static final long SHUTDOWN_REPLY_MARGIN = 1000L;
+
   private String config;
 
+  private volatile String starterDeploymentId;
+
   private boolean ha;
   private boolean cluster;
 
@@ -63,10 +78,9 @@ public class KnotxCommand extends BareCommand {
    * @param ha whether or not to enable the HA.
    */
   @Option(longName = "ha", acceptValue = false, flag = true)
-  @Description(
-      "If specified the Knot.x will be deployed as a high availability (HA) deployment. This means it can "
-          +
-          "fail over to any other nodes in the cluster started with the same HA group.")
+  @Description("If specified the Knot.x will be deployed as a high availability (HA) deployment. "
+      + "This means it can fail over to any other nodes in the cluster started with the same HA "
+      + "group.")
   public void setHighAvailability(boolean ha) {
     this.ha = ha;
   }
@@ -77,10 +91,8 @@ public class KnotxCommand extends BareCommand {
    * @param cluster whether or not to start Knot.x in clustered mode.
    */
   @Option(longName = "cluster", acceptValue = false, flag = true)
-  @Description(
-      "If specified then the Knot.x instance will form a cluster with any other Knotx.x instances on the "
-          +
-          "network.")
+  @Description("If specified then the Knot.x instance will form a cluster with any other Knotx.x "
+      + "instances on the network.")
   public void setCluster(boolean cluster) {
     this.cluster = cluster;
   }
@@ -115,7 +127,9 @@ public class KnotxCommand extends BareCommand {
    */
   @Override
   public void run() {
+    long start = System.nanoTime();
     JsonObject conf = getConfiguration();
+    long bootstrapReadNanos = System.nanoTime() - start;
     if (conf == null) {
       ExecUtils.exit(KNOTX_MISSING_OR_EMPTY_CONFIGURATION_EXIT_CODE);
     }
@@ -132,13 +146,16 @@ public class KnotxCommand extends BareCommand {
       ((VertxInternal) vertx).addCloseHook(completionHandler -> {
         try {
           beforeStoppingVertx(vertx);
-          completionHandler.handle(Future.succeededFuture());
         } catch (Exception e) {
           completionHandler.handle(Future.failedFuture(e));
+          return;
         }
+        stopModules(conf, completionHandler);
       });
     }
 
+    BootTimeline.prepare(vertx, start)
+        .recordPhase("bootstrap-read", start, bootstrapReadNanos, new JsonObject());
     deploy(conf);
   }
 
@@ -150,15 +167,44 @@ public class KnotxCommand extends BareCommand {
       if (res.failed()) {
         res.cause().printStackTrace();
         handleDeployFailed(res.cause(), deploymentOptions);
+      } else {
+        starterDeploymentId = res.result();
       }
     });
   }
 
+  /**
+   * Asks the starter to shut modules down gracefully before Vert.x undeploys them, see
+   * <pre>launcherOptions.shutdownTimeout</pre>. Vert.x closes anyway when the starter is not
+   * deployed or does not respond in time.
+   */
+  private void stopModules(JsonObject conf, Handler<AsyncResult<Void>> completionHandler) {
+    if (starterDeploymentId == null) {
+      completionHandler.handle(Future.succeededFuture());
+      return;
+    }
+    long shutdownTimeout;
+    try {
+      shutdownTimeout = LauncherOptions.fromBootstrapConfig(conf).getShutdownTimeout();
+    } catch (BadKnotxConfigurationException e) {
+      shutdownTimeout = LauncherOptions.DEFAULT_SHUTDOWN_TIMEOUT;
+    }
+    vertx.eventBus().request(KnotxStarterVerticle.shutdownAddress(starterDeploymentId), null,
+        new DeliveryOptions().setSendTimeout(shutdownTimeout + SHUTDOWN_REPLY_MARGIN), ar -> {
+          if (ar.failed()) {
+            log.warn("Graceful shutdown of Knot.x modules failed", ar.cause());
+          }
+          completionHandler.handle(Future.succeededFuture());
+        });
+  }
+
   DeploymentOptions getDeploymentOptions(JsonObject conf) {
     DeploymentOptions deploymentOptions = new DeploymentOptions();
     configureFromSystemProperties(deploymentOptions, DEPLOYMENT_OPTIONS_PROP_PREFIX);
 
-    Preconditions.checkState(deploymentOptions.getInstances() == DeploymentOptions.DEFAULT_INSTANCES, "One and only one Starter Verticle allowed");
+    Preconditions.checkState(
+        deploymentOptions.getInstances() == DeploymentOptions.DEFAULT_INSTANCES,
+        "One and only one Starter Verticle allowed");
     deploymentOptions.setConfig(conf).setHa(ha);
 
     return deploymentOptions;
@@ -182,8 +228,9 @@ public class KnotxCommand extends BareCommand {
       URL bootstrap = getClass().getClassLoader().getResource(DEFAULT_LOADER_FILE);
       if (bootstrap != null) {
         log.info("Loading configuration from classpath: {}.", bootstrap.toExternalForm());
-        try {
-          conf = scanConfig(bootstrap.openStream());
+        try (InputStream is = bootstrap.openStream()) {
+          conf = decodeConfig(Buffer.buffer(ByteStreams.toByteArray(is)),
+              bootstrap.toExternalForm());
         } catch (IOException e) {
           e.printStackTrace();
           return null;
@@ -196,28 +243,38 @@ public class KnotxCommand extends BareCommand {
       try {
         File configFile = new File(config);
         log.info("Loading configuration from {}", configFile.toURI());
-        conf = scanConfig(new FileInputStream(configFile));
-      } catch (FileNotFoundException e) {
+        conf = readConfig(configFile);
+      } catch (NoSuchFileException e) {
         log.error("The -conf option does not point to an existing file");
         e.printStackTrace();
         return null;
+      } catch (IOException e) {
+        e.printStackTrace();
+        return null;
       }
     }
     return conf;
   }
 
-  private JsonObject scanConfig(InputStream is) {
-    JsonObject conf;
-    try (Scanner scanner = new Scanner(is, "UTF-8").useDelimiter("\\A")) {
-      String sconf = scanner.next();
-      try {
-        conf = new JsonObject(sconf);
-      } catch (DecodeException e) {
-        log.error("Configuration file " + sconf + " does not contain a valid JSON object");
-        return null;
-      }
+  /**
+   * Maps the file into memory and decodes JSON directly from the mapped bytes, so the file
+   * content is not copied into intermediate strings.
+   */
+  private JsonObject readConfig(File configFile) throws IOException {
+    try (FileChannel channel = FileChannel.open(configFile.toPath(), StandardOpenOption.READ)) {
+      Buffer content = Buffer.buffer(Unpooled.wrappedBuffer(
+          channel.map(MapMode.READ_ONLY, 0, channel.size())));
+      return decodeConfig(content, configFile.toString());
+    }
+  }
+
+  private JsonObject decodeConfig(Buffer content, String location) {
+    try {
+      return new JsonObject(content);
+    } catch (DecodeException e) {
+      log.error("Configuration file " + location + " does not contain a valid JSON object");
+      return null;
     }
-    return conf;
   }
 
   protected void beforeDeployingVerticle(DeploymentOptions deploymentOptions) {
@@ -16,81 +16,294 @@
 package io.knotx.launcher;
 
 import com.google.common.collect.Lists;
+import io.knotx.launcher.LauncherOptions.RedeployMode;
 import io.knotx.launcher.ModuleDescriptor.DeploymentState;
+import io.knotx.launcher.config.ConfIncludes;
+import io.knotx.launcher.config.ConfPropertyLookups;
+import io.knotx.launcher.config.ConfigFileWatcher;
 import io.knotx.launcher.exception.ModulesUnsupportedSyntaxException;
 import io.knotx.launcher.helper.LogoPrintHelper;
+import io.knotx.launcher.metrics.LauncherMetrics;
+import io.knotx.launcher.metrics.Metrics;
 import io.knotx.launcher.property.SystemProperties;
+import io.reactivex.Completable;
 import io.reactivex.Observable;
 import io.reactivex.Single;
 import io.vertx.config.ConfigRetrieverOptions;
+import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.reactivex.config.ConfigRetriever;
 import io.vertx.reactivex.core.AbstractVerticle;
+import io.vertx.reactivex.core.RxHelper;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.core.eventbus.Message;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class KnotxStarterVerticle extends AbstractVerticle {
 
+  /**
+   * Prefix of the address the drain notice is published to before a module is undeployed on
+   * shutdown, see {@link #drainAddress(String)}. The notice is a JSON object with the module
+   * <pre>alias</pre>, <pre>deploymentId</pre> and <pre>drainPeriod</pre> (in milliseconds).
+   */
+  public static final String DRAIN_ADDRESS = "knotx.launcher.drain";
+
+  /**
+   * Key of the module configuration entry with the drain address of the starter that deployed
+   * the module. The address is unique per starter, so in a cluster only modules of the stopping
+   * instance get the notice.
+   */
+  public static final String DRAIN_ADDRESS_KEY = "knotx.launcher.drainAddress";
+
+  /**
+   * Address of the scaling API. A request is a JSON object with the module <pre>alias</pre> and
+   * the requested total number of <pre>instances</pre>, the reply contains the module alias and
+   * its running instances. In a cluster every instance also listens on its node address, see
+   * {@link #scaleAddress(String)}.
+   */
+  public static final String SCALE_ADDRESS = "knotx.launcher.scale";
+
   private static final String MODULES_KEY = "modules";
   private static final Logger LOGGER = LoggerFactory.getLogger(KnotxStarterVerticle.class);
   private static final String FILE_STORE = "file";
   private static final String KNOTX_HOME_PROPERTY = "knotx.home";
+  private static final int MAX_BACKOFF_SHIFT = 10;
+  private static final String SHUTDOWN_ADDRESS_PREFIX = "knotx.launcher.shutdown.";
+  private static final long RECONFIGURATION_LOCK_ATTEMPT_TIMEOUT = 1000L;
   private List<ModuleDescriptor> deployedModules;
+  private final Map<String, LazyModuleVerticle> lazyPlaceholders = new HashMap<>();
+  private JsonObject currentConfig;
   private SystemProperties systemProperties;
+  private LauncherOptions launcherOptions;
+  private ConfigRetriever configRetriever;
+  private ReconfigurationScheduler reconfigurationScheduler;
+  private ReconfigurationLock reconfigurationLock;
+  private ConfigFileWatcher configWatcher;
+  private ConfigSnapshot configSnapshot;
+  private List<Path> storeFiles = Collections.emptyList();
+  private Consumer<Set<String>> propertiesListener;
+  private ProbeServer probeServer;
+  private boolean shuttingDown;
+  private BootTimeline bootTimeline;
 
   @Override
   public void start(Future<Void> startFuture) {
-    systemProperties = new SystemProperties();
+    systemProperties = SystemProperties.shared();
+    bootTimeline = BootTimeline.start(vertx.getDelegate());
 
     LogoPrintHelper.printLogo();
 
     try {
+      launcherOptions = LauncherOptions.fromBootstrapConfig(config());
       JsonObject configOptions = getConfigRetrieverOptions(config());
 
-      ConfigRetriever configRetriever = ConfigRetriever
+      launcherOptions.getMaxConcurrentReconfigurations().ifPresent(permits ->
+          reconfigurationLock = new ReconfigurationLock(vertx, permits,
+              RECONFIGURATION_LOCK_ATTEMPT_TIMEOUT));
+      reconfigurationScheduler = new ReconfigurationScheduler(vertx,
+          launcherOptions.getReconfigureQuietPeriod(), this::redeployChangedModules);
+      configRetriever = ConfigRetriever
           .create(vertx, new ConfigRetrieverOptions(configOptions));
-      configRetriever.listen(conf -> {
-        if (!deployedModules.isEmpty()) {
-          LOGGER.warn("Configuration changed - Re-deploying Knot.x");
-          Observable.fromIterable(deployedModules)
-              .flatMap(item -> vertx.rxUndeploy(item.getDeploymentId()).toObservable())
-              .collect(Lists::newArrayList, ArrayList::add)
-              .subscribe(
-                  success -> {
-                    LOGGER.warn("Knot.x STOPPED.");
-                    deployVerticles(conf.getNewConfiguration(), null);
-                  },
-                  error -> {
-                    LOGGER.error("Unable to undeploy verticles", error);
-                    startFuture.fail(error);
-                  }
-              );
-        }
+      configRetriever.listen(change -> {
+        configurationRetrieved(change.getNewConfiguration());
+        reconfigurationScheduler.submit(change.getNewConfiguration());
       });
 
-      configRetriever.getConfig(ar -> {
-        if (ar.succeeded()) {
-          JsonObject configuration = ar.result();
-          deployVerticles(configuration, startFuture);
-        } else {
-          LOGGER.fatal("Unable to start Knot.x", ar.cause());
-          startFuture.fail(ar.cause());
-        }
-      });
+      propertiesListener = changedKeys ->
+          context.runOnContext(v -> propertiesChanged(changedKeys));
+      systemProperties.addChangeListener(propertiesListener);
+
+      launcherOptions.getProbePort().ifPresent(this::startProbeServer);
+      vertx.eventBus().<JsonObject>consumer(SCALE_ADDRESS, this::scaleRequested);
+      if (vertx.isClustered()) {
+        String nodeId = ((VertxInternal) vertx.getDelegate()).getNodeID();
+        LOGGER.info("Scaling API of cluster node {} available on {}", nodeId,
+            scaleAddress(nodeId));
+        vertx.eventBus().<JsonObject>consumer(scaleAddress(nodeId), this::scaleRequested);
+      }
+      vertx.eventBus().consumer(shutdownAddress(deploymentID()), message ->
+          shutdownModules().subscribe(message::reply,
+              error -> message.fail(0, String.valueOf(error.getMessage()))));
+
+      storeFiles = getFileStorePaths(configOptions);
+      if (launcherOptions.isWatchConfig()) {
+        configWatcher = new ConfigFileWatcher(vertx.getDelegate(),
+            launcherOptions.getWatchDebounce(), v -> reloadConfiguration());
+      }
+      if (launcherOptions.isConfigSnapshot()) {
+        configSnapshot = createConfigSnapshot(configOptions);
+      }
+      if (configWatcher != null && configSnapshot != null) {
+        configWatcher.exclude(configSnapshot.getSnapshotFile());
+      }
+
+      startInitialDeployment(startFuture);
     } catch (BadKnotxConfigurationException ex) {
       startFuture.fail(ex);
+    } catch (IOException ex) {
+      LOGGER.fatal("Unable to watch configuration files", ex);
+      startFuture.fail(ex);
+    }
+  }
+
+  /**
+   * Runs the initial deployment as an operation of the reconfiguration scheduler, so
+   * configuration changes detected in the meantime are applied once it completes.
+   */
+  private void startInitialDeployment(Future<Void> startFuture) {
+    Promise<Void> started = Promise.promise();
+    reconfigurationScheduler.execute(Single.<Boolean>create(emitter -> {
+      started.future().onComplete(ar -> {
+        startFuture.handle(ar);
+        emitter.onSuccess(ar.succeeded());
+      });
+      if (configSnapshot != null) {
+        long loadStart = System.nanoTime();
+        configSnapshot.load().subscribe(
+            configuration -> {
+              bootTimeline.recordPhase("config-snapshot-load", loadStart);
+              startFromSnapshot(configuration, started);
+            },
+            error -> {
+              LOGGER.warn("Unable to load configuration snapshot", error);
+              startFromStores(started);
+            },
+            () -> startFromStores(started));
+      } else {
+        startFromStores(started);
+      }
+    })).subscribe();
+  }
+
+  private void startFromStores(Promise<Void> started) {
+    long retrieveStart = System.nanoTime();
+    configRetriever.getConfig(ar -> {
+      bootTimeline.recordPhase("config-retrieve", retrieveStart);
+      if (ar.succeeded()) {
+        JsonObject configuration = ar.result();
+        configurationRetrieved(configuration);
+        deployVerticles(configuration, started);
+      } else {
+        LOGGER.fatal("Unable to start Knot.x", ar.cause());
+        started.fail(ar.cause());
+      }
+    });
+  }
+
+  /**
+   * Deploys modules from the snapshot and re-validates the configuration retrieved from the
+   * stores in the background, changes are applied as any other configuration change once the
+   * initial deployment completes.
+   */
+  private void startFromSnapshot(JsonObject configuration, Promise<Void> started) {
+    LOGGER.info("Starting Knot.x from the configuration snapshot");
+    deployVerticles(configuration, started);
+    reloadConfiguration();
+  }
+
+  private ConfigSnapshot createConfigSnapshot(JsonObject configOptions) {
+    boolean onlyFileStores = configOptions.getJsonArray("stores").stream()
+        .map(item -> (JsonObject) item)
+        .allMatch(store -> FILE_STORE.equals(store.getString("type")));
+    if (!onlyFileStores) {
+      LOGGER.warn("Configuration snapshot is supported only with '{}' stores, it is disabled",
+          FILE_STORE);
+      return null;
+    }
+    return new ConfigSnapshot(vertx, launcherOptions.getConfigSnapshotFile(), configOptions);
+  }
+
+  @Override
+  public void stop() {
+    if (configWatcher != null) {
+      configWatcher.close();
+    }
+    if (propertiesListener != null) {
+      systemProperties.removeChangeListener(propertiesListener);
+    }
+    if (probeServer != null) {
+      probeServer.close();
+    }
+  }
+
+  private void startProbeServer(int port) {
+    probeServer = new ProbeServer(vertx, () -> deployedModules, this::isReconfiguring,
+        () -> shuttingDown);
+    probeServer.listen(launcherOptions.getProbeHost(), port)
+        .doOnError(error -> LOGGER.error("Unable to start health probes on port {}", port, error))
+        .onErrorComplete()
+        .subscribe();
+  }
+
+  /**
+   * Re-resolves the configuration only when changed properties were used to resolve it. Stores
+   * not depending on the changed properties are served from the processed configuration cache.
+   */
+  private void propertiesChanged(Set<String> changedKeys) {
+    if (ConfPropertyLookups.anyLookedUp(changedKeys)) {
+      LOGGER.info("System properties {} changed, reloading configuration", changedKeys);
+      reloadConfiguration();
     }
   }
 
+  private void reloadConfiguration() {
+    configRetriever.getConfig(ar -> {
+      if (ar.failed()) {
+        LOGGER.error("Unable to reload configuration", ar.cause());
+      } else {
+        configurationRetrieved(ar.result());
+        reconfigurationScheduler.submit(ar.result());
+      }
+    });
+  }
+
+  private void configurationRetrieved(JsonObject configuration) {
+    List<Path> files = Lists.newArrayList(storeFiles);
+    files.addAll(ConfIncludes.getIncludedFiles());
+    if (configWatcher != null) {
+      configWatcher.watch(files);
+    }
+    if (configSnapshot != null) {
+      configSnapshot.save(configuration, files).subscribe();
+    }
+  }
+
+  private List<Path> getFileStorePaths(JsonObject configOptions) {
+    return configOptions.getJsonArray("stores").stream()
+        .map(item -> (JsonObject) item)
+        .filter(store -> FILE_STORE.equals(store.getString("type")))
+        .map(store -> store.getJsonObject("config").getString("path"))
+        .filter(Objects::nonNull)
+        .map(Paths::get)
+        .collect(Collectors.toList());
+  }
+
   private JsonObject getConfigRetrieverOptions(JsonObject config) {
     JsonObject configOptions;
     if (config().getJsonObject("configRetrieverOptions") != null) {
@@ -129,23 +342,21 @@ public class KnotxStarterVerticle extends AbstractVerticle {
     return resolvedPath;
   }
 
-  private void deployVerticles(JsonObject config, Future<Void> completion) {
+  private void deployVerticles(JsonObject config, Promise<Void> completion) {
     LOGGER.info("STARTING Knot.x");
-    Observable.just(config)
-        .flatMap(c -> Observable.fromIterable(getModulesFromConfigOrEmpty(c)))
-        .map(entry -> ModuleDescriptor.fromConfig(entry.getKey(), entry.getValue(), config))
-        .flatMap(this::deployVerticle)
-        .reduce(new ArrayList<ModuleDescriptor>(), (accumulator, item) -> {
-          accumulator.add(item);
-          return accumulator;
-        })
+    long deployStart = System.nanoTime();
+    Single.fromCallable(() -> buildDeploymentGraph(config))
+        .flatMap(graph -> deployLevels(graph.getLevels()))
+        .doFinally(() -> completeBootTimeline(deployStart))
         .subscribe(
             deployments -> {
               deployedModules = Lists.newArrayList(deployments);
+              currentConfig = config;
               LOGGER.info("Instance modules: {}", buildMessage());
               if (completion != null) {
                 if (anyRequiredModuleFailed(deployedModules)) {
-                  final String message = "Knot.x start FAILED: some mandatory modules deployment failed";
+                  final String message =
+                      "Knot.x start FAILED: some mandatory modules deployment failed";
                   LOGGER.error(message);
                   completion.fail(message);
                 } else {
@@ -163,13 +374,459 @@ public class KnotxStarterVerticle extends AbstractVerticle {
         );
   }
 
-  private Set<Entry<String, String>> getModulesFromConfigOrEmpty(JsonObject config) {
+  private void completeBootTimeline(long deployStart) {
+    bootTimeline.recordPhase("modules-deploy", deployStart);
+    bootTimeline.complete();
+    launcherOptions.getBootTimelineFile().ifPresent(file ->
+        vertx.fileSystem().writeFile(file, Buffer.buffer(bootTimeline.toJson().encodePrettily()),
+            ar -> {
+              if (ar.succeeded()) {
+                LOGGER.info("Boot timeline written to {}", file);
+              } else {
+                LOGGER.warn("Unable to write boot timeline to {}", file, ar.cause());
+              }
+            }));
+  }
+
+  /**
+   * @param deploymentId - starter deployment id
+   * @return address of the starter graceful shutdown trigger
+   */
+  static String shutdownAddress(String deploymentId) {
+    return SHUTDOWN_ADDRESS_PREFIX + deploymentId;
+  }
+
+  /**
+   * @param deploymentId - deployment id of the starter
+   * @return address the starter publishes drain notices to
+   */
+  public static String drainAddress(String deploymentId) {
+    return DRAIN_ADDRESS + "." + deploymentId;
+  }
+
+  /**
+   * Returns the scaling API address of the Knot.x instance running on the given cluster node.
+   *
+   * @param nodeId - cluster node ID
+   * @return the scaling address of the node
+   */
+  public static String scaleAddress(String nodeId) {
+    return SCALE_ADDRESS + "." + nodeId;
+  }
+
+  /**
+   * Shuts modules down in the reverse dependency order, level by level. Modules of a level get the
+   * drain notice first, then they are undeployed when the longest <pre>drainPeriod</pre> of the
+   * level elapses. Configuration changes not applied yet are dropped, and the shutdown is
+   * executed by the reconfiguration scheduler, so it waits for a running re-deployment or
+   * scaling instead of undeploying modules it changes. The whole shutdown is limited by
+   * <pre>shutdownTimeout</pre>, modules still running when it elapses are undeployed by Vert.x.
+   *
+   * @return shutdown report with timings of each step
+   */
+  private Single<JsonObject> shutdownModules() {
+    if (deployedModules == null || shuttingDown) {
+      return Single.just(new JsonObject().put("steps", new JsonArray()));
+    }
+    shuttingDown = true;
+    reconfigurationScheduler.cancelPending();
+    LOGGER.info("STOPPING Knot.x modules");
+    long start = System.nanoTime();
+    JsonArray steps = new JsonArray();
+    Completable undeploy = Completable.defer(() -> Observable.fromIterable(getShutdownLevels())
+        .concatMapCompletable(level -> drainAndUndeploy(level, steps)));
+    return reconfigurationScheduler.execute(undeploy.toSingleDefault(steps))
+        .ignoreElement()
+        .timeout(launcherOptions.getShutdownTimeout(), TimeUnit.MILLISECONDS,
+            RxHelper.scheduler(vertx))
+        .doOnError(error -> LOGGER.warn("Modules not stopped gracefully within {} ms",
+            launcherOptions.getShutdownTimeout(), error))
+        .onErrorComplete()
+        .toSingle(() -> new JsonObject()
+            .put("durationMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+            .put("steps", steps))
+        .doOnSuccess(report -> LOGGER.info("Knot.x modules STOPPED in {} ms",
+            report.getLong("durationMillis")));
+  }
+
+  private List<List<ModuleDescriptor>> getShutdownLevels() {
+    Map<String, Integer> levelByAlias = new HashMap<>();
+    try {
+      List<List<ModuleDescriptor>> levels = buildDeploymentGraph(currentConfig).getLevels();
+      for (int level = 0; level < levels.size(); level++) {
+        for (ModuleDescriptor module : levels.get(level)) {
+          levelByAlias.put(module.getAlias(), level);
+        }
+      }
+    } catch (ModulesUnsupportedSyntaxException | BadKnotxConfigurationException e) {
+      LOGGER.warn("Unable to compute module dependencies, stopping all modules at once", e);
+    }
+    Map<Integer, List<ModuleDescriptor>> shutdownLevels = new TreeMap<>(Comparator.reverseOrder());
+    deployedModules.stream()
+        .filter(module -> !module.getAllDeploymentIds().isEmpty())
+        .forEach(module -> shutdownLevels
+            .computeIfAbsent(levelByAlias.getOrDefault(module.getAlias(), Integer.MAX_VALUE),
+                level -> new ArrayList<>())
+            .add(module));
+    return new ArrayList<>(shutdownLevels.values());
+  }
+
+  private Completable drainAndUndeploy(List<ModuleDescriptor> level, JsonArray steps) {
+    return Completable.defer(() -> {
+      long drainStart = System.nanoTime();
+      long drainPeriod = level.stream().mapToLong(ModuleDescriptor::getDrainPeriod).max()
+          .orElse(0L);
+      level.forEach(module -> vertx.eventBus().publish(drainAddress(deploymentID()),
+          new JsonObject()
+              .put("alias", module.getAlias())
+              .put("deploymentId", module.getDeploymentId())
+              .put("drainPeriod", module.getDrainPeriod())));
+      Completable drain = drainPeriod > 0
+          ? Completable.timer(drainPeriod, TimeUnit.MILLISECONDS, RxHelper.scheduler(vertx))
+          : Completable.complete();
+      return drain.andThen(Completable.defer(() -> {
+        long undeployStart = System.nanoTime();
+        return undeployModules(level).doOnComplete(() -> {
+          deployedModules = deployedModules.stream()
+              .filter(module -> !level.contains(module))
+              .collect(Collectors.toList());
+          JsonObject step = new JsonObject()
+              .put("modules", new JsonArray(level.stream()
+                  .map(ModuleDescriptor::getAlias)
+                  .collect(Collectors.toList())))
+              .put("drainMillis", TimeUnit.NANOSECONDS.toMillis(undeployStart - drainStart))
+              .put("undeployMillis",
+                  TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - undeployStart));
+          steps.add(step);
+          LOGGER.info("Stopped {}", step.encode());
+        });
+      }));
+    });
+  }
+
+  /**
+   * Scales the running module to the requested number of instances. Instances are added as
+   * supplementary deployments of one instance each and only those can be removed, so the module
+   * can not be scaled below its configured instances. Supplementary deployments live until the
+   * module is re-deployed (e.g. its configuration changes) or undeployed. Scaling is executed by
+   * the reconfiguration scheduler, so it never overlaps a re-deployment.
+   */
+  private void scaleRequested(Message<JsonObject> message) {
+    scaleModule(message.body()).subscribe(message::reply,
+        error -> message.fail(0, String.valueOf(error.getMessage())));
+  }
+
+  private Single<JsonObject> scaleModule(JsonObject request) {
+    String alias = request == null ? null : request.getString("alias");
+    Integer instances = request == null ? null : request.getInteger("instances");
+    if (alias == null || instances == null) {
+      return Single.error(new IllegalArgumentException(
+          "Scale request requires 'alias' and 'instances'"));
+    }
+    return reconfigurationScheduler.execute(Single.defer(() -> scaleModule(alias, instances)));
+  }
+
+  private Single<JsonObject> scaleModule(String alias, int instances) {
+    if (deployedModules == null || shuttingDown) {
+      return Single.error(new IllegalStateException(
+          "Knot.x is starting or stopping, retry later"));
+    }
+    Optional<ModuleDescriptor> running = findModule(alias)
+        .filter(module -> module.getState() == DeploymentState.SUCCESS);
+    if (!running.isPresent()) {
+      return Single.error(new IllegalArgumentException(
+          "Module '" + alias + "' is not deployed"));
+    }
+    ModuleDescriptor module = running.get();
+    if (module.isLazy()) {
+      return Single.error(new IllegalArgumentException(
+          "Lazy module '" + alias + "' can not be scaled"));
+    }
+    int configured = module.getDeploymentOptions().getInstances();
+    if (instances < configured) {
+      return Single.error(new IllegalArgumentException(
+          "Module '" + alias + "' can not be scaled below its configured " + configured
+              + " instance(s)"));
+    }
+    int difference = instances - module.getTotalInstances();
+    LOGGER.info("Scaling {} from {} to {} instance(s)", alias, module.getTotalInstances(),
+        instances);
+    Completable scaling;
+    if (difference > 0) {
+      scaling = addInstances(module, difference);
+    } else if (difference < 0) {
+      List<String> supplementary = module.getSupplementaryDeploymentIds();
+      scaling = removeInstances(module, supplementary
+          .subList(supplementary.size() + difference, supplementary.size()));
+    } else {
+      scaling = Completable.complete();
+    }
+    return scaling.toSingle(() -> new JsonObject()
+        .put("alias", alias)
+        .put("instances", findModule(alias).map(ModuleDescriptor::getTotalInstances)
+            .orElse(0)));
+  }
+
+  /**
+   * Deploys the supplementary instances one by one. The shutdown does not wait for scaling, so
+   * scaling stops when the shutdown starts and an instance deployed after that is undeployed
+   * right away.
+   */
+  private Completable addInstances(ModuleDescriptor module, int count) {
+    DeploymentOptions options = new DeploymentOptions(module.getDeploymentOptions())
+        .setInstances(1);
+    return Observable.range(0, count)
+        .concatMapCompletable(i -> Completable.defer(() -> {
+          if (shuttingDown) {
+            return Completable.error(new IllegalStateException(
+                "Knot.x is stopping, scaling of " + module.getAlias() + " interrupted"));
+          }
+          long start = System.nanoTime();
+          return vertx.rxDeployVerticle(module.getName(), options)
+              .flatMapCompletable(deploymentId -> {
+                if (shuttingDown) {
+                  return vertx.rxUndeploy(deploymentId)
+                      .andThen(Completable.error(new IllegalStateException(
+                          "Knot.x is stopping, scaling of " + module.getAlias()
+                              + " interrupted")));
+                }
+                replaceModule(module.getAlias(),
+                    current -> new ModuleDescriptor(current)
+                        .addSupplementaryDeploymentId(deploymentId));
+                metrics().moduleDeployed(module.getAlias(), System.nanoTime() - start, true, 1);
+                return Completable.complete();
+              });
+        }));
+  }
+
+  private Completable removeInstances(ModuleDescriptor module, List<String> deploymentIds) {
+    return Observable.fromIterable(new ArrayList<>(deploymentIds))
+        .concatMapCompletable(deploymentId -> Completable.defer(() -> {
+          long start = System.nanoTime();
+          return vertx.rxUndeploy(deploymentId)
+              .doOnComplete(() -> {
+                replaceModule(module.getAlias(),
+                    current -> new ModuleDescriptor(current)
+                        .removeSupplementaryDeploymentId(deploymentId));
+                metrics().moduleUndeployed(module.getAlias(), System.nanoTime() - start, 1);
+              });
+        }));
+  }
+
+  private Optional<ModuleDescriptor> findModule(String alias) {
+    return deployedModules.stream()
+        .filter(module -> module.getAlias().equals(alias))
+        .findFirst();
+  }
+
+  private void replaceModule(String alias, Function<ModuleDescriptor, ModuleDescriptor> update) {
+    deployedModules = deployedModules.stream()
+        .map(module -> module.getAlias().equals(alias) ? update.apply(module) : module)
+        .collect(Collectors.toList());
+  }
+
+  private Completable redeployChangedModules(JsonObject config) {
+    if (shuttingDown || deployedModules == null) {
+      // stopping or the initial deployment failed
+      return Completable.complete();
+    }
+    final ModulesDiff diff;
+    final DeploymentGraph graph;
+    try {
+      diff = ModulesDiff.compute(getModulesFromConfigOrEmpty(currentConfig), currentConfig,
+          getModulesFromConfigOrEmpty(config), config);
+      graph = buildDeploymentGraph(config);
+    } catch (ModulesUnsupportedSyntaxException | BadKnotxConfigurationException e) {
+      LOGGER.error("Configuration changed but it is invalid, keeping the current deployment", e);
+      return Completable.complete();
+    }
+
+    // modules that failed previously are deployed again with the new configuration
+    Set<String> affected = new HashSet<>(diff.getAffectedAliases());
+    deployedModules.stream()
+        .filter(module -> module.getState() == DeploymentState.FAILED)
+        .map(ModuleDescriptor::getAlias)
+        .forEach(affected::add);
+
+    if (affected.isEmpty()) {
+      LOGGER.info("Configuration changed - no modules affected");
+      currentConfig = config;
+      return Completable.complete();
+    }
+
+    LOGGER.warn("Configuration changed - re-deploying Knot.x modules {}", diff);
+    List<ModuleDescriptor> untouched = deployedModules.stream()
+        .filter(module -> !affected.contains(module.getAlias()))
+        .collect(Collectors.toList());
+    List<ModuleDescriptor> previousGeneration = deployedModules.stream()
+        .filter(module -> affected.contains(module.getAlias()))
+        .collect(Collectors.toList());
+    List<List<ModuleDescriptor>> levels = graph.getLevels(affected);
+
+    final Single<List<ModuleDescriptor>> redeployment;
+    if (launcherOptions.getRedeployMode() == RedeployMode.SHADOW) {
+      redeployment = redeployShadow(previousGeneration, levels);
+    } else {
+      redeployment = undeployModules(previousGeneration).andThen(deployLevels(levels));
+    }
+    return coordinated(redeployment)
+        .doOnSuccess(deployments -> {
+          List<ModuleDescriptor> modulesAfterRedeploy = Lists.newArrayList(untouched);
+          modulesAfterRedeploy.addAll(deployments);
+          deployedModules = modulesAfterRedeploy;
+          currentConfig = config;
+          metrics().configReloaded();
+          LOGGER.info("Instance modules: {}", buildMessage());
+        })
+        .doOnError(error -> LOGGER.error("Unable to re-deploy verticles", error))
+        .ignoreElement()
+        .onErrorComplete();
+  }
+
+  /**
+   * Runs the re-deployment holding a reconfiguration permit when the number of instances
+   * reconfiguring at the same time is limited.
+   */
+  private <T> Single<T> coordinated(Single<T> redeployment) {
+    return reconfigurationLock == null ? redeployment : reconfigurationLock.guard(redeployment);
+  }
+
+  /**
+   * An instance waiting for a reconfiguration permit keeps serving with the current modules, so it
+   * is not reported as reconfiguring.
+   */
+  private boolean isReconfiguring() {
+    return reconfigurationScheduler.isReconfiguring()
+        && (reconfigurationLock == null || !reconfigurationLock.isWaiting());
+  }
+
+  /**
+   * Deploys the new generation of modules alongside the previous one. The previous generation is
+   * undeployed only when all required modules of the new generation are deployed, otherwise the
+   * new generation is undeployed and the previous one keeps running.
+   */
+  private Single<List<ModuleDescriptor>> redeployShadow(List<ModuleDescriptor> previousGeneration,
+      List<List<ModuleDescriptor>> levels) {
+    return deployLevels(levels)
+        .flatMap(newGeneration -> {
+          if (anyRequiredModuleFailed(newGeneration)) {
+            return undeployModules(newGeneration)
+                .andThen(Single.<List<ModuleDescriptor>>error(new IllegalStateException(
+                    "Some mandatory modules of the new generation failed to deploy, "
+                        + "keeping the previous generation running")));
+          }
+          LOGGER.info("New generation of modules deployed, undeploying the previous one");
+          return undeployModules(previousGeneration).toSingleDefault(newGeneration);
+        });
+  }
+
+  private DeploymentGraph buildDeploymentGraph(JsonObject config) {
+    return new DeploymentGraph(getModulesFromConfigOrEmpty(config).entrySet().stream()
+        .map(entry -> ModuleDescriptor.fromConfig(entry.getKey(), entry.getValue(), config))
+        .map(this::withDrainAddress)
+        .collect(Collectors.toList()));
+  }
+
+  /**
+   * Passes the drain address of this starter to the module in its configuration. The module
+   * configuration is copied, as it is a part of the current configuration compared on changes.
+   */
+  private ModuleDescriptor withDrainAddress(ModuleDescriptor module) {
+    DeploymentOptions options = module.getDeploymentOptions();
+    JsonObject moduleConfig = Optional.ofNullable(options.getConfig())
+        .map(JsonObject::copy)
+        .orElseGet(JsonObject::new);
+    options.setConfig(moduleConfig.put(DRAIN_ADDRESS_KEY, drainAddress(deploymentID())));
+    return module;
+  }
+
+  /**
+   * Deploys levels one after another, modules within a level are deployed concurrently (limited
+   * by <pre>maxDeployParallelism</pre>). A module whose dependency failed is not deployed and is
+   * marked as failed. When a required module fails, no further modules are deployed (they are
+   * marked as failed), as the deployment fails anyway.
+   */
+  private Single<List<ModuleDescriptor>> deployLevels(List<List<ModuleDescriptor>> levels) {
+    Set<String> failedAliases = new HashSet<>();
+    Set<String> failedRequired = new HashSet<>();
+    return Observable.fromIterable(levels)
+        .concatMap(level -> Observable.fromIterable(level)
+            .flatMap(module ->
+                    deployWhenDependenciesDeployed(module, failedAliases, failedRequired),
+                launcherOptions.getMaxDeployParallelism()))
+        .doOnNext(module -> {
+          if (module.getState() == DeploymentState.FAILED) {
+            failedAliases.add(module.getAlias());
+            if (module.isRequired()) {
+              failedRequired.add(module.getAlias());
+            }
+          }
+        })
+        .toList();
+  }
+
+  private Observable<ModuleDescriptor> deployWhenDependenciesDeployed(ModuleDescriptor module,
+      Set<String> failedAliases, Set<String> failedRequired) {
+    return Observable.defer(() -> {
+      if (!failedRequired.isEmpty()) {
+        LOGGER.error("Skipping {}={}, required modules {} failed to deploy",
+            module.getAlias(), module.getName(), failedRequired);
+        return Observable.just(new ModuleDescriptor(module).setState(DeploymentState.FAILED));
+      }
+      Optional<String> failedDependency = module.getDependsOn().stream()
+          .filter(failedAliases::contains)
+          .findFirst();
+      if (failedDependency.isPresent()) {
+        LOGGER.error("Can't deploy {}={}, its dependency '{}' failed to deploy",
+            module.getAlias(), module.getName(), failedDependency.get());
+        return Observable.just(new ModuleDescriptor(module).setState(DeploymentState.FAILED));
+      }
+      return deployVerticle(module);
+    });
+  }
+
+  private Completable undeployModules(List<ModuleDescriptor> modules) {
+    return Observable.fromIterable(modules)
+        .flatMapCompletable(this::undeployModule);
+  }
+
+  private Completable undeployModule(ModuleDescriptor module) {
+    List<String> deploymentIds = module.getAllDeploymentIds();
+    if (deploymentIds.isEmpty()) {
+      return Completable.complete();
+    }
+    return Completable.defer(() -> {
+      long start = System.nanoTime();
+      return Observable.fromIterable(deploymentIds)
+          .flatMapCompletable(vertx::rxUndeploy)
+          .doOnComplete(() -> {
+            LOGGER.info("Undeployed {}={} {}", module.getAlias(), module.getName(),
+                deploymentIds);
+            metrics().moduleUndeployed(module.getAlias(), System.nanoTime() - start,
+                undeployedInstances(module));
+          });
+    });
+  }
+
+  /**
+   * Instances of a lazy module are deployed only while it is activated, and they are undeployed
+   * together with its placeholder.
+   */
+  private int undeployedInstances(ModuleDescriptor module) {
+    if (!module.isLazy()) {
+      return module.getTotalInstances();
+    }
+    LazyModuleVerticle placeholder = lazyPlaceholders.remove(module.getDeploymentId());
+    return placeholder == null ? 0 : placeholder.getModuleInstances();
+  }
+
+  private Map<String, String> getModulesFromConfigOrEmpty(JsonObject config) {
     Object modulesObject = config.getMap().get(MODULES_KEY);
     if (isModulesPropertyValid(modulesObject)) {
       Optional<JsonObject> jsonObject = Optional.ofNullable(config.getJsonObject(MODULES_KEY));
       return jsonObject.map(json -> json.getMap().entrySet().stream().collect(Collectors.toMap(
           Entry::getKey, e -> String.valueOf(e.getValue()))))
-          .orElse(Collections.emptyMap()).entrySet();
+          .orElse(Collections.emptyMap());
     } else {
       throw new ModulesUnsupportedSyntaxException(config);
     }
@@ -186,17 +843,92 @@ public class KnotxStarterVerticle extends AbstractVerticle {
   }
 
   private Observable<ModuleDescriptor> deployVerticle(final ModuleDescriptor module) {
-    return vertx
-        .rxDeployVerticle(module.getName(), module.getDeploymentOptions())
-        .map(deployId ->
-            new ModuleDescriptor(module)
-                .setDeploymentId(deployId)
-                .setState(DeploymentState.SUCCESS))
-        .doOnError(error ->
-            LOGGER.error("Can't deploy {}={}", module.getAlias(), module.getName(), error))
-        .onErrorResumeNext(
-            (err) -> Single.just(new ModuleDescriptor(module).setState(DeploymentState.FAILED)))
-        .toObservable();
+    return Single.defer(() -> {
+      long start = System.nanoTime();
+      Single<String> deployment = module.isLazy()
+          ? deployLazy(module)
+          : deployWithRetries(module, 0);
+      return deployment
+          .map(deployId ->
+              new ModuleDescriptor(module)
+                  .setDeploymentId(deployId)
+                  .setState(DeploymentState.SUCCESS)
+                  .setDeployDurationNanos(System.nanoTime() - start))
+          .doOnError(error ->
+              LOGGER.error("Can't deploy {}={}", module.getAlias(), module.getName(), error))
+          .onErrorResumeNext(
+              (err) -> Single.just(new ModuleDescriptor(module)
+                  .setState(DeploymentState.FAILED)
+                  .setDeployDurationNanos(System.nanoTime() - start)))
+          .doOnSuccess(deployed -> {
+            bootTimeline.recordModule(deployed, start);
+            metrics().moduleDeployed(deployed.getAlias(), deployed.getDeployDurationNanos(),
+                deployed.getState() == DeploymentState.SUCCESS,
+                deployed.isLazy() ? 0 : deployed.getDeploymentOptions().getInstances());
+          });
+    }).toObservable();
+  }
+
+  private Single<String> deployLazy(ModuleDescriptor module) {
+    LazyModuleVerticle placeholder = new LazyModuleVerticle(module);
+    return vertx.rxDeployVerticle(placeholder)
+        .doOnSuccess(deploymentId -> lazyPlaceholders.put(deploymentId, placeholder));
+  }
+
+  /**
+   * Deploys the module, a failed (or timed out) attempt is retried up to <pre>retries</pre> times
+   * with exponential backoff.
+   */
+  private Single<String> deployWithRetries(ModuleDescriptor module, int attempt) {
+    return deployWithTimeout(module)
+        .onErrorResumeNext(error -> {
+          if (attempt >= module.getRetries()) {
+            return Single.error(error);
+          }
+          long backoff = module.getRetryBackoff() << Math.min(attempt, MAX_BACKOFF_SHIFT);
+          LOGGER.warn("Deployment of {}={} failed, retrying in {} ms ({}/{})", module.getAlias(),
+              module.getName(), backoff, attempt + 1, module.getRetries(), error);
+          return Completable.timer(backoff, TimeUnit.MILLISECONDS, RxHelper.scheduler(vertx))
+              .andThen(Single.defer(() -> deployWithRetries(module, attempt + 1)));
+        });
+  }
+
+  /**
+   * Deploys the module and fails when the deployment does not complete within
+   * <pre>deployTimeout</pre>. A deployment completed after the timeout is undeployed.
+   */
+  private Single<String> deployWithTimeout(ModuleDescriptor module) {
+    if (module.getDeployTimeout() <= 0) {
+      return vertx.rxDeployVerticle(module.getName(), module.getDeploymentOptions());
+    }
+    return Single.create(emitter -> {
+      AtomicBoolean completed = new AtomicBoolean();
+      long timerId = vertx.setTimer(module.getDeployTimeout(), id -> {
+        if (completed.compareAndSet(false, true)) {
+          emitter.onError(new TimeoutException(
+              "Deployment of " + module.getAlias() + " timed out after "
+                  + module.getDeployTimeout() + " ms"));
+        }
+      });
+      vertx.deployVerticle(module.getName(), module.getDeploymentOptions(), ar -> {
+        if (completed.compareAndSet(false, true)) {
+          vertx.cancelTimer(timerId);
+          if (ar.succeeded()) {
+            emitter.onSuccess(ar.result());
+          } else {
+            emitter.onError(ar.cause());
+          }
+        } else if (ar.succeeded()) {
+          LOGGER.warn("{}={} deployed after the timeout, undeploying [{}]", module.getAlias(),
+              module.getName(), ar.result());
+          vertx.rxUndeploy(ar.result()).subscribe(
+              () -> LOGGER.info("Late deployment of {} undeployed [{}]", module.getAlias(),
+                  ar.result()),
+              error -> LOGGER.error("Unable to undeploy late deployment of {} [{}]",
+                  module.getAlias(), ar.result(), error));
+        }
+      });
+    });
   }
 
   private String buildMessage() {
@@ -208,4 +940,8 @@ public class KnotxStarterVerticle extends AbstractVerticle {
         .toString();
   }
 
+  private LauncherMetrics metrics() {
+    return Metrics.get(vertx.getDelegate());
+  }
+
 }
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import io.vertx.core.json.JsonObject;
+import java.util.Optional;
+
+/**
+ * Launcher settings defined in the <pre>launcherOptions</pre> object of the bootstrap
+ * configuration (by default <pre>bootstrap.json</pre>). All settings are optional.
+ */
+class LauncherOptions {
+
+  static final String LAUNCHER_OPTIONS_KEY = "launcherOptions";
+
+  private static final String MAX_DEPLOY_PARALLELISM_KEY = "maxDeployParallelism";
+  private static final String REDEPLOY_MODE_KEY = "redeployMode";
+  private static final String BOOT_TIMELINE_FILE_KEY = "bootTimelineFile";
+  private static final String WATCH_CONFIG_KEY = "watchConfig";
+  private static final String WATCH_DEBOUNCE_KEY = "watchDebounce";
+  private static final long DEFAULT_WATCH_DEBOUNCE = 200L;
+  private static final String RECONFIGURE_QUIET_PERIOD_KEY = "reconfigureQuietPeriod";
+  private static final String CONFIG_SNAPSHOT_KEY = "configSnapshot";
+  private static final String CONFIG_SNAPSHOT_FILE_KEY = "configSnapshotFile";
+  private static final String PROBE_PORT_KEY = "probePort";
+  private static final String PROBE_HOST_KEY = "probeHost";
+  private static final String DEFAULT_PROBE_HOST = "0.0.0.0";
+  private static final String SHUTDOWN_TIMEOUT_KEY = "shutdownTimeout";
+  static final long DEFAULT_SHUTDOWN_TIMEOUT = 30000L;
+  private static final String MAX_CONCURRENT_RECONFIGURATIONS_KEY =
+      "maxConcurrentReconfigurations";
+
+  private final int maxDeployParallelism;
+  private final RedeployMode redeployMode;
+  private final String bootTimelineFile;
+  private final boolean watchConfig;
+  private final long watchDebounce;
+  private final long reconfigureQuietPeriod;
+  private final boolean configSnapshot;
+  private final String configSnapshotFile;
+  private final Integer probePort;
+  private final String probeHost;
+  private final long shutdownTimeout;
+  private final Integer maxConcurrentReconfigurations;
+
+  LauncherOptions(JsonObject json) {
+    maxDeployParallelism = json.getInteger(MAX_DEPLOY_PARALLELISM_KEY, Integer.MAX_VALUE);
+    if (maxDeployParallelism < 1) {
+      throw new BadKnotxConfigurationException(
+          "'" + MAX_DEPLOY_PARALLELISM_KEY + "' must be greater than 0");
+    }
+    redeployMode = RedeployMode.fromString(
+        json.getString(REDEPLOY_MODE_KEY, RedeployMode.INCREMENTAL.name()));
+    bootTimelineFile = json.getString(BOOT_TIMELINE_FILE_KEY);
+    watchConfig = json.getBoolean(WATCH_CONFIG_KEY, false);
+    watchDebounce = json.getLong(WATCH_DEBOUNCE_KEY, DEFAULT_WATCH_DEBOUNCE);
+    reconfigureQuietPeriod = json.getLong(RECONFIGURE_QUIET_PERIOD_KEY, 0L);
+    configSnapshot = json.getBoolean(CONFIG_SNAPSHOT_KEY, false);
+    configSnapshotFile = json.getString(CONFIG_SNAPSHOT_FILE_KEY);
+    probePort = json.getInteger(PROBE_PORT_KEY);
+    probeHost = json.getString(PROBE_HOST_KEY, DEFAULT_PROBE_HOST);
+    shutdownTimeout = json.getLong(SHUTDOWN_TIMEOUT_KEY, DEFAULT_SHUTDOWN_TIMEOUT);
+    maxConcurrentReconfigurations = json.getInteger(MAX_CONCURRENT_RECONFIGURATIONS_KEY);
+    if (maxConcurrentReconfigurations != null && maxConcurrentReconfigurations < 1) {
+      throw new BadKnotxConfigurationException(
+          "'" + MAX_CONCURRENT_RECONFIGURATIONS_KEY + "' must be greater than 0");
+    }
+  }
+
+  static LauncherOptions fromBootstrapConfig(JsonObject config) {
+    return new LauncherOptions(config.getJsonObject(LAUNCHER_OPTIONS_KEY, new JsonObject()));
+  }
+
+  /**
+   * @return maximum number of modules from one dependency level that are deployed concurrently
+   */
+  int getMaxDeployParallelism() {
+    return maxDeployParallelism;
+  }
+
+  /**
+   * @return the way modules are re-deployed when the configuration changes
+   */
+  RedeployMode getRedeployMode() {
+    return redeployMode;
+  }
+
+  /**
+   * @return path of the file the JSON boot timeline is written to when the instance starts
+   */
+  Optional<String> getBootTimelineFile() {
+    return Optional.ofNullable(bootTimelineFile);
+  }
+
+  /**
+   * @return whether configuration files are watched for changes with the file system watch service
+   */
+  boolean isWatchConfig() {
+    return watchConfig;
+  }
+
+  /**
+   * @return quiet period in milliseconds after the last configuration file change, before the
+   * configuration is reloaded
+   */
+  long getWatchDebounce() {
+    return watchDebounce;
+  }
+
+  /**
+   * @return quiet period in milliseconds a configuration change waits for subsequent changes,
+   * before it is applied
+   */
+  long getReconfigureQuietPeriod() {
+    return reconfigureQuietPeriod;
+  }
+
+  /**
+   * @return whether the instance starts from the resolved configuration snapshot when it is valid
+   */
+  boolean isConfigSnapshot() {
+    return configSnapshot;
+  }
+
+  /**
+   * @return path of the configuration snapshot file, <pre>null</pre> for the default location
+   */
+  String getConfigSnapshotFile() {
+    return configSnapshotFile;
+  }
+
+  /**
+   * @return port of the liveness and readiness probes server, the server is not started when
+   * empty
+   */
+  Optional<Integer> getProbePort() {
+    return Optional.ofNullable(probePort);
+  }
+
+  /**
+   * @return host the liveness and readiness probes server listens on
+   */
+  String getProbeHost() {
+    return probeHost;
+  }
+
+  /**
+   * @return maximum time in milliseconds of the graceful modules shutdown (draining and
+   * undeploying all modules)
+   */
+  long getShutdownTimeout() {
+    return shutdownTimeout;
+  }
+
+  /**
+   * @return maximum number of instances (cluster nodes) re-deploying modules at the same time,
+   * not coordinated when empty
+   */
+  Optional<Integer> getMaxConcurrentReconfigurations() {
+    return Optional.ofNullable(maxConcurrentReconfigurations);
+  }
+
+  enum RedeployMode {
+    /**
+     * Changed modules are undeployed first, then deployed with the new configuration.
+     */
+    INCREMENTAL,
+    /**
+     * Changed modules are deployed with the new configuration alongside the running ones, the
+     * running ones are undeployed only when the new ones deployed successfully.
+     */
+    SHADOW;
+
+    private static RedeployMode fromString(String value) {
+      try {
+        return valueOf(value.toUpperCase());
+      } catch (IllegalArgumentException e) {
+        throw new BadKnotxConfigurationException(
+            "Unsupported '" + REDEPLOY_MODE_KEY + "' value: " + value);
+      }
+    }
+  }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import io.knotx.launcher.metrics.LauncherMetrics;
+import io.knotx.launcher.metrics.Metrics;
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.DeliveryContext;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.reactivex.core.AbstractVerticle;
+import io.vertx.reactivex.core.eventbus.Message;
+import io.vertx.reactivex.core.eventbus.MessageConsumer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Placeholder of a lazy module. It consumes the module addresses and deploys the module (as its
+ * child deployment) on the first message. Messages received while the module is being deployed
+ * are queued and forwarded to the module once it is deployed, replies are passed back to the
+ * senders. When <pre>idleTimeout</pre> is set, the module is undeployed again when no message was
+ * delivered to its addresses for that time, and the placeholder takes the addresses over.
+ * Undeploying the placeholder undeploys the module too.
+ */
+class LazyModuleVerticle extends AbstractVerticle {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LazyModuleVerticle.class);
+
+  private final ModuleDescriptor module;
+  private final Set<String> addresses;
+  private final List<MessageConsumer<Object>> placeholders = new ArrayList<>();
+  private final Queue<Message<Object>> pending = new ArrayDeque<>();
+  private Handler<DeliveryContext<Object>> activityInterceptor;
+  private volatile long lastActivityNanos;
+  private volatile String moduleDeploymentId;
+  private boolean transitioning;
+  private long idleTimerId = -1;
+
+  LazyModuleVerticle(ModuleDescriptor module) {
+    this.module = module;
+    this.addresses = new HashSet<>(module.getAddresses());
+  }
+
+  @Override
+  public void start() {
+    registerPlaceholders();
+    LOGGER.info("Lazy module {}={} waits for messages on {}", module.getAlias(),
+        module.getName(), addresses);
+  }
+
+  @Override
+  public void stop() {
+    stopIdleTracking();
+    failPending(new IllegalStateException("Module " + module.getAlias() + " is undeployed"));
+  }
+
+  /**
+   * The module is a child deployment, Vert.x undeploys it before stopping the placeholder, so the
+   * undeployment is recorded by the starter that undeploys the placeholder.
+   *
+   * @return number of module instances deployed by the placeholder, <pre>0</pre> when the module
+   * is not activated
+   */
+  int getModuleInstances() {
+    return moduleDeploymentId == null ? 0 : module.getDeploymentOptions().getInstances();
+  }
+
+  /**
+   * Tracks messages delivered to the module addresses while the module is deployed, the
+   * interceptor is installed only then, so idle modules cost nothing to the event bus.
+   */
+  private void startIdleTracking() {
+    if (module.getIdleTimeout() <= 0 || activityInterceptor != null) {
+      return;
+    }
+    activityInterceptor = context -> {
+      if (addresses.contains(context.message().address())) {
+        lastActivityNanos = System.nanoTime();
+      }
+      context.next();
+    };
+    vertx.eventBus().getDelegate().addInboundInterceptor(activityInterceptor);
+    idleTimerId = vertx.setPeriodic(Math.max(module.getIdleTimeout() / 2, 1L),
+        id -> undeployWhenIdle());
+  }
+
+  private void stopIdleTracking() {
+    if (idleTimerId != -1) {
+      vertx.cancelTimer(idleTimerId);
+      idleTimerId = -1;
+    }
+    if (activityInterceptor != null) {
+      vertx.eventBus().getDelegate().removeInboundInterceptor(activityInterceptor);
+      activityInterceptor = null;
+    }
+  }
+
+  private void registerPlaceholders() {
+    addresses.forEach(address ->
+        placeholders.add(vertx.eventBus().consumer(address, this::onMessage)));
+  }
+
+  private Completable unregisterPlaceholders() {
+    List<MessageConsumer<Object>> registered = new ArrayList<>(placeholders);
+    placeholders.clear();
+    return Observable.fromIterable(registered)
+        .flatMapCompletable(MessageConsumer::rxUnregister);
+  }
+
+  private void onMessage(Message<Object> message) {
+    pending.add(message);
+    if (!transitioning) {
+      activate();
+    }
+  }
+
+  private void activate() {
+    transitioning = true;
+    long start = System.nanoTime();
+    LOGGER.info("Activating lazy module {}={}", module.getAlias(), module.getName());
+    vertx.rxDeployVerticle(module.getName(), module.getDeploymentOptions())
+        .flatMap(deploymentId -> unregisterPlaceholders().toSingleDefault(deploymentId))
+        .subscribe(deploymentId -> {
+          moduleDeploymentId = deploymentId;
+          lastActivityNanos = System.nanoTime();
+          transitioning = false;
+          startIdleTracking();
+          metrics().moduleDeployed(module.getAlias(), System.nanoTime() - start, true,
+              module.getDeploymentOptions().getInstances());
+          LOGGER.info("Lazy module {}={} activated in {} ms [{}]", module.getAlias(),
+              module.getName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+              deploymentId);
+          forwardPending();
+        }, error -> {
+          transitioning = false;
+          metrics().moduleDeployed(module.getAlias(), System.nanoTime() - start, false, 0);
+          LOGGER.error("Can't activate lazy module {}={}", module.getAlias(), module.getName(),
+              error);
+          failPending(error);
+        });
+  }
+
+  private void undeployWhenIdle() {
+    long idleNanos = System.nanoTime() - lastActivityNanos;
+    if (moduleDeploymentId == null || transitioning
+        || idleNanos < TimeUnit.MILLISECONDS.toNanos(module.getIdleTimeout())) {
+      return;
+    }
+    String deploymentId = moduleDeploymentId;
+    moduleDeploymentId = null;
+    transitioning = true;
+    stopIdleTracking();
+    long start = System.nanoTime();
+    // messages received while the module is being undeployed are queued and activate it again
+    registerPlaceholders();
+    vertx.rxUndeploy(deploymentId)
+        .doFinally(() -> transitioning = false)
+        .subscribe(() -> {
+          metrics().moduleUndeployed(module.getAlias(), System.nanoTime() - start,
+              module.getDeploymentOptions().getInstances());
+          LOGGER.info("Lazy module {}={} idle for {} ms, undeployed [{}]", module.getAlias(),
+              module.getName(), TimeUnit.NANOSECONDS.toMillis(idleNanos), deploymentId);
+          if (!pending.isEmpty()) {
+            activate();
+          }
+        }, error -> {
+          LOGGER.error("Can't undeploy idle lazy module {}={}", module.getAlias(),
+              module.getName(), error);
+          if (!pending.isEmpty()) {
+            activate();
+          }
+        });
+  }
+
+  private void forwardPending() {
+    Message<Object> message;
+    while ((message = pending.poll()) != null) {
+      forward(message);
+    }
+  }
+
+  private void forward(Message<Object> message) {
+    DeliveryOptions options = new DeliveryOptions().setHeaders(message.headers().getDelegate());
+    if (!message.isSend()) {
+      vertx.eventBus().publish(message.address(), message.body(), options);
+    } else if (message.replyAddress() == null) {
+      vertx.eventBus().send(message.address(), message.body(), options);
+    } else {
+      vertx.eventBus().<Object>request(message.address(), message.body(), options, reply -> {
+        if (reply.succeeded()) {
+          message.reply(reply.result().body(),
+              new DeliveryOptions().setHeaders(reply.result().headers().getDelegate()));
+        } else if (reply.cause() instanceof ReplyException) {
+          ReplyException cause = (ReplyException) reply.cause();
+          message.fail(cause.failureCode(), cause.getMessage());
+        } else {
+          message.fail(-1, String.valueOf(reply.cause().getMessage()));
+        }
+      });
+    }
+  }
+
+  private void failPending(Throwable error) {
+    Message<Object> message;
+    while ((message = pending.poll()) != null) {
+      if (message.replyAddress() != null) {
+        message.fail(-1, "Lazy module " + module.getAlias() + " is not available: "
+            + error.getMessage());
+      }
+    }
+  }
+
+  private LauncherMetrics metrics() {
+    return Metrics.get(vertx.getDelegate());
+  }
+}
@@ -15,10 +15,17 @@
  */
 package io.knotx.launcher;
 
+import io.knotx.launcher.helper.AvailableCoresHelper;
 import io.vertx.core.DeploymentOptions;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 public class ModuleDescriptor {
 
@@ -29,6 +36,18 @@ public class ModuleDescriptor {
   private static final String CONFIG_OVERRIDE = "config";
   private static final String MODULE_OPTIONS = "options";
   private static final String REQUIRED_KEY = "required";
+  private static final String DEPENDS_ON_KEY = "dependsOn";
+  private static final String DEPLOY_TIMEOUT_KEY = "deployTimeout";
+  private static final String RETRIES_KEY = "retries";
+  private static final String RETRY_BACKOFF_KEY = "retryBackoff";
+  private static final long DEFAULT_RETRY_BACKOFF = 1000L;
+  private static final String DRAIN_PERIOD_KEY = "drainPeriod";
+  private static final String INSTANCES_KEY = "instances";
+  private static final String MIN_INSTANCES_KEY = "minInstances";
+  private static final String MAX_INSTANCES_KEY = "maxInstances";
+  private static final String LAZY_KEY = "lazy";
+  private static final String ADDRESSES_KEY = "addresses";
+  private static final String IDLE_TIMEOUT_KEY = "idleTimeout";
 
   private String alias;
   private String name;
@@ -36,6 +55,16 @@ public class ModuleDescriptor {
   private DeploymentState state = DeploymentState.UNKNOWN;
   private DeploymentOptions deploymentOptions;
   private boolean required = true;
+  private List<String> dependsOn = Collections.emptyList();
+  private long deployDurationNanos = -1;
+  private long deployTimeout;
+  private int retries;
+  private long retryBackoff = DEFAULT_RETRY_BACKOFF;
+  private long drainPeriod;
+  private List<String> supplementaryDeploymentIds = Collections.emptyList();
+  private boolean lazy;
+  private List<String> addresses = Collections.emptyList();
+  private long idleTimeout;
 
   private ModuleDescriptor(String alias, String name) {
     this.alias = alias;
@@ -53,6 +82,16 @@ public class ModuleDescriptor {
     this.state = other.state;
     this.deploymentOptions = other.deploymentOptions;
     this.required = other.required;
+    this.dependsOn = other.dependsOn;
+    this.deployDurationNanos = other.deployDurationNanos;
+    this.deployTimeout = other.deployTimeout;
+    this.retries = other.retries;
+    this.retryBackoff = other.retryBackoff;
+    this.drainPeriod = other.drainPeriod;
+    this.supplementaryDeploymentIds = other.supplementaryDeploymentIds;
+    this.lazy = other.lazy;
+    this.addresses = other.addresses;
+    this.idleTimeout = other.idleTimeout;
   }
 
   static ModuleDescriptor fromConfig(String alias, String name, JsonObject json) {
@@ -88,6 +127,18 @@ public class ModuleDescriptor {
     return state;
   }
 
+  /**
+   * @return time of the module deployment in nanoseconds, <pre>-1</pre> when not deployed yet
+   */
+  public long getDeployDurationNanos() {
+    return deployDurationNanos;
+  }
+
+  public ModuleDescriptor setDeployDurationNanos(long deployDurationNanos) {
+    this.deployDurationNanos = deployDurationNanos;
+    return this;
+  }
+
   public DeploymentOptions getDeploymentOptions() {
     return deploymentOptions;
   }
@@ -96,12 +147,115 @@ public class ModuleDescriptor {
     return required;
   }
 
+  /**
+   * @return aliases of modules that have to be deployed before this module
+   */
+  public List<String> getDependsOn() {
+    return dependsOn;
+  }
+
+  /**
+   * @return maximum time in milliseconds a single deployment attempt may take, <pre>0</pre> when
+   * not limited
+   */
+  public long getDeployTimeout() {
+    return deployTimeout;
+  }
+
+  /**
+   * @return number of deployment attempts after the first failed one
+   */
+  public int getRetries() {
+    return retries;
+  }
+
+  /**
+   * @return delay in milliseconds before the first retry, it doubles with every next retry
+   */
+  public long getRetryBackoff() {
+    return retryBackoff;
+  }
+
+  /**
+   * @return time in milliseconds the module gets to finish in-flight work between the drain
+   * notice and its undeployment on shutdown
+   */
+  public long getDrainPeriod() {
+    return drainPeriod;
+  }
+
+  /**
+   * @return whether the module is deployed on the first message sent to one of its addresses
+   */
+  public boolean isLazy() {
+    return lazy;
+  }
+
+  /**
+   * @return event bus addresses consumed by the module, a lazy module is deployed on the first
+   * message sent to any of them
+   */
+  public List<String> getAddresses() {
+    return addresses;
+  }
+
+  /**
+   * @return time in milliseconds without messages on the module addresses after which a lazy
+   * module is undeployed again, <pre>0</pre> when it stays deployed
+   */
+  public long getIdleTimeout() {
+    return idleTimeout;
+  }
+
+  /**
+   * @return ids of single instance deployments added when the module was scaled up at runtime
+   */
+  public List<String> getSupplementaryDeploymentIds() {
+    return supplementaryDeploymentIds;
+  }
+
+  ModuleDescriptor addSupplementaryDeploymentId(String deploymentId) {
+    List<String> ids = new ArrayList<>(supplementaryDeploymentIds);
+    ids.add(deploymentId);
+    this.supplementaryDeploymentIds = Collections.unmodifiableList(ids);
+    return this;
+  }
+
+  ModuleDescriptor removeSupplementaryDeploymentId(String deploymentId) {
+    List<String> ids = new ArrayList<>(supplementaryDeploymentIds);
+    ids.remove(deploymentId);
+    this.supplementaryDeploymentIds = Collections.unmodifiableList(ids);
+    return this;
+  }
+
+  /**
+   * @return ids of all deployments of the module: the configured one and the supplementary ones
+   */
+  public List<String> getAllDeploymentIds() {
+    List<String> ids = new ArrayList<>();
+    if (deploymentId != null) {
+      ids.add(deploymentId);
+    }
+    ids.addAll(supplementaryDeploymentIds);
+    return ids;
+  }
+
+  /**
+   * @return number of running instances: the configured ones and one per supplementary
+   * deployment
+   */
+  public int getTotalInstances() {
+    return deploymentOptions.getInstances() + supplementaryDeploymentIds.size();
+  }
+
   String toLogEntry() {
     return getState().getMessage()
-        + " " + deploymentOptions.getInstances() + " instance(s)"
-        + " of " + (required ? "required " : "optional ") + alias
+        + " " + getTotalInstances() + " instance(s)"
+        + " of " + (required ? "required " : "optional ") + (lazy ? "lazy " : "") + alias
         + " (" + name + ")"
-        + (deploymentId != null ? " [" + deploymentId + "]" : "");
+        + (deploymentId != null ? " [" + deploymentId + "]" : "")
+        + (deployDurationNanos >= 0
+        ? " in " + TimeUnit.NANOSECONDS.toMillis(deployDurationNanos) + " ms" : "");
   }
 
   @Override
@@ -113,6 +267,16 @@ public class ModuleDescriptor {
         ", state=" + state +
         ", deploymentOptions=" + deploymentOptions +
         ", required=" + required +
+        ", dependsOn=" + dependsOn +
+        ", deployDurationNanos=" + deployDurationNanos +
+        ", deployTimeout=" + deployTimeout +
+        ", retries=" + retries +
+        ", retryBackoff=" + retryBackoff +
+        ", drainPeriod=" + drainPeriod +
+        ", supplementaryDeploymentIds=" + supplementaryDeploymentIds +
+        ", lazy=" + lazy +
+        ", addresses=" + addresses +
+        ", idleTimeout=" + idleTimeout +
         '}';
   }
 
@@ -123,9 +287,23 @@ public class ModuleDescriptor {
         JsonObject moduleConfig = json.getJsonObject(CONFIG_OVERRIDE)
             .getJsonObject(descriptor.alias);
         if (moduleConfig.containsKey(MODULE_OPTIONS)) {
-          descriptor.deploymentOptions.fromJson(moduleConfig.getJsonObject(MODULE_OPTIONS));
-          descriptor.required = moduleConfig.getJsonObject(MODULE_OPTIONS)
-              .getBoolean(REQUIRED_KEY, true);
+          JsonObject options = moduleConfig.getJsonObject(MODULE_OPTIONS);
+          descriptor.deploymentOptions.fromJson(options);
+          descriptor.deploymentOptions.setInstances(
+              resolveInstances(descriptor.alias, options, AvailableCoresHelper.availableCores()));
+          descriptor.required = options.getBoolean(REQUIRED_KEY, true);
+          descriptor.dependsOn = parseStrings(options.getJsonArray(DEPENDS_ON_KEY));
+          descriptor.deployTimeout = options.getLong(DEPLOY_TIMEOUT_KEY, 0L);
+          descriptor.retries = options.getInteger(RETRIES_KEY, 0);
+          descriptor.retryBackoff = options.getLong(RETRY_BACKOFF_KEY, DEFAULT_RETRY_BACKOFF);
+          descriptor.drainPeriod = options.getLong(DRAIN_PERIOD_KEY, 0L);
+          descriptor.lazy = options.getBoolean(LAZY_KEY, false);
+          descriptor.addresses = parseStrings(options.getJsonArray(ADDRESSES_KEY));
+          descriptor.idleTimeout = options.getLong(IDLE_TIMEOUT_KEY, 0L);
+          if (descriptor.lazy && descriptor.addresses.isEmpty()) {
+            throw new BadKnotxConfigurationException(
+                "Lazy module '" + descriptor.alias + "' requires '" + ADDRESSES_KEY + "'");
+          }
         } else {
           LOGGER.warn(
               "Module '{}' has config, but missing 'options' object. "
@@ -138,6 +316,37 @@ public class ModuleDescriptor {
     }
   }
 
+  /**
+   * Resolves <pre>instances</pre> given as a number or as an expression relative to the number
+   * of cores (see {@link InstancesExpression}), capped by <pre>minInstances</pre> and
+   * <pre>maxInstances</pre>.
+   */
+  static int resolveInstances(String alias, JsonObject options, int cores) {
+    Object value = options.getValue(INSTANCES_KEY, DeploymentOptions.DEFAULT_INSTANCES);
+    int instances;
+    if (value instanceof Number) {
+      instances = ((Number) value).intValue();
+    } else {
+      instances = InstancesExpression.resolve(String.valueOf(value), cores);
+    }
+    int min = options.getInteger(MIN_INSTANCES_KEY, 1);
+    int max = options.getInteger(MAX_INSTANCES_KEY, Integer.MAX_VALUE);
+    if (min > max) {
+      throw new BadKnotxConfigurationException("Module '" + alias + "' has '" + MIN_INSTANCES_KEY
+          + "' greater than '" + MAX_INSTANCES_KEY + "'");
+    }
+    return Math.min(max, Math.max(min, instances));
+  }
+
+  private static List<String> parseStrings(JsonArray values) {
+    if (values == null) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableList(values.stream()
+        .map(String::valueOf)
+        .collect(Collectors.toList()));
+  }
+
   public enum DeploymentState {
     UNKNOWN("Unknown state"),
     SUCCESS("Deployed"),
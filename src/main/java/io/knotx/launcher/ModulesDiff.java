@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import io.vertx.core.json.JsonObject;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Compares two versions of the Knot.x configuration and computes a per-alias change set. Only
+ * the <pre>modules</pre> entries and the <pre>config.&lt;alias&gt;</pre> trees are taken into
+ * account, so changes in other parts of the configuration do not trigger any redeployment.
+ */
+class ModulesDiff {
+
+  private static final String CONFIG_KEY = "config";
+  private static final String OPTIONS_KEY = "options";
+
+  private final Map<String, Set<Change>> changes;
+
+  private ModulesDiff(Map<String, Set<Change>> changes) {
+    this.changes = changes;
+  }
+
+  /**
+   * Computes changes between the previous and current configuration.
+   *
+   * @param previousModules - modules (alias to verticle name) from the previous configuration
+   * @param previousConfig - previous configuration
+   * @param currentModules - modules (alias to verticle name) from the current configuration
+   * @param currentConfig - current configuration
+   * @return computed changes, empty when no module is affected
+   */
+  static ModulesDiff compute(Map<String, String> previousModules, JsonObject previousConfig,
+      Map<String, String> currentModules, JsonObject currentConfig) {
+    Set<String> aliases = new LinkedHashSet<>(previousModules.keySet());
+    aliases.addAll(currentModules.keySet());
+
+    Map<String, Set<Change>> changes = new LinkedHashMap<>();
+    aliases.forEach(alias -> {
+      Set<Change> aliasChanges = compare(alias,
+          previousModules.get(alias), moduleConfig(previousConfig, alias),
+          currentModules.get(alias), moduleConfig(currentConfig, alias));
+      if (!aliasChanges.isEmpty()) {
+        changes.put(alias, aliasChanges);
+      }
+    });
+    return new ModulesDiff(changes);
+  }
+
+  boolean isEmpty() {
+    return changes.isEmpty();
+  }
+
+  /**
+   * @return aliases of all modules that have to be undeployed or deployed
+   */
+  Set<String> getAffectedAliases() {
+    return Collections.unmodifiableSet(changes.keySet());
+  }
+
+  Set<String> getAdded() {
+    return aliasesWith(Change.ADDED);
+  }
+
+  Set<String> getRemoved() {
+    return aliasesWith(Change.REMOVED);
+  }
+
+  Set<Change> getChanges(String alias) {
+    return changes.getOrDefault(alias, Collections.emptySet());
+  }
+
+  private Set<String> aliasesWith(Change change) {
+    return changes.entrySet().stream()
+        .filter(entry -> entry.getValue().contains(change))
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+  }
+
+  private static Set<Change> compare(String alias, String previousName, JsonObject previousConfig,
+      String currentName, JsonObject currentConfig) {
+    Set<Change> result = EnumSet.noneOf(Change.class);
+    if (previousName == null) {
+      result.add(Change.ADDED);
+    } else if (currentName == null) {
+      result.add(Change.REMOVED);
+    } else {
+      if (!previousName.equals(currentName)) {
+        result.add(Change.NAME_CHANGED);
+      }
+      if (!Objects.equals(optionsWithoutConfig(previousConfig),
+          optionsWithoutConfig(currentConfig))) {
+        result.add(Change.OPTIONS_CHANGED);
+      }
+      if (!Objects.equals(moduleOptionsConfig(previousConfig),
+          moduleOptionsConfig(currentConfig))) {
+        result.add(Change.CONFIG_CHANGED);
+      }
+    }
+    return result;
+  }
+
+  private static JsonObject moduleConfig(JsonObject config, String alias) {
+    JsonObject modulesConfig = config == null ? null : config.getJsonObject(CONFIG_KEY);
+    return modulesConfig == null ? null : modulesConfig.getJsonObject(alias);
+  }
+
+  private static JsonObject optionsWithoutConfig(JsonObject moduleConfig) {
+    JsonObject options = moduleOptions(moduleConfig);
+    if (options == null) {
+      return null;
+    }
+    JsonObject copy = options.copy();
+    copy.remove(CONFIG_KEY);
+    return copy;
+  }
+
+  private static JsonObject moduleOptionsConfig(JsonObject moduleConfig) {
+    JsonObject options = moduleOptions(moduleConfig);
+    return options == null ? null : options.getJsonObject(CONFIG_KEY);
+  }
+
+  private static JsonObject moduleOptions(JsonObject moduleConfig) {
+    return moduleConfig == null ? null : moduleConfig.getJsonObject(OPTIONS_KEY);
+  }
+
+  @Override
+  public String toString() {
+    return "ModulesDiff{" +
+        "changes=" + changes +
+        '}';
+  }
+
+  enum Change {
+    ADDED,
+    REMOVED,
+    NAME_CHANGED,
+    OPTIONS_CHANGED,
+    CONFIG_CHANGED
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import io.knotx.launcher.ModuleDescriptor.DeploymentState;
+import io.knotx.launcher.metrics.Metrics;
+import io.reactivex.Completable;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.http.HttpServer;
+import io.vertx.reactivex.core.http.HttpServerRequest;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A lightweight HTTP server exposing the instance liveness and readiness:
+ * <ul>
+ * <li><pre>GET /healthz/live</pre> - responds with 200 as long as the instance is running,</li>
+ * <li><pre>GET /healthz/ready</pre> - responds with 200 when all modules are deployed, all
+ * required modules are deployed successfully and no reconfiguration or shutdown is in progress,
+ * otherwise with 503.</li>
+ * </ul>
+ * Both responses contain the JSON status with states of all modules. Additionally
+ * <pre>GET /metrics</pre> exports the launcher metrics in the Prometheus text format.
+ */
+class ProbeServer {
+
+  static final String LIVENESS_PATH = "/healthz/live";
+  static final String READINESS_PATH = "/healthz/ready";
+  static final String METRICS_PATH = "/metrics";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ProbeServer.class);
+  private static final int OK = 200;
+  private static final int NOT_FOUND = 404;
+  private static final int SERVICE_UNAVAILABLE = 503;
+
+  private final Vertx vertx;
+  private final Supplier<List<ModuleDescriptor>> modules;
+  private final BooleanSupplier reconfiguring;
+  private final BooleanSupplier stopping;
+  private HttpServer server;
+
+  /**
+   * @param vertx - vertx instance
+   * @param modules - currently deployed modules, <pre>null</pre> until the first deployment
+   * completes
+   * @param reconfiguring - whether a reconfiguration is in progress
+   * @param stopping - whether modules are being shut down
+   */
+  ProbeServer(Vertx vertx, Supplier<List<ModuleDescriptor>> modules,
+      BooleanSupplier reconfiguring, BooleanSupplier stopping) {
+    this.vertx = vertx;
+    this.modules = modules;
+    this.reconfiguring = reconfiguring;
+    this.stopping = stopping;
+  }
+
+  Completable listen(String host, int port) {
+    return vertx.createHttpServer()
+        .requestHandler(this::handle)
+        .rxListen(port, host)
+        .doOnSuccess(listening -> {
+          server = listening;
+          LOGGER.info("Health probes available on {}:{}", host, listening.actualPort());
+        })
+        .ignoreElement();
+  }
+
+  void close() {
+    if (server != null) {
+      server.close();
+    }
+  }
+
+  /**
+   * Computes the instance status.
+   *
+   * @param modules - deployed modules, <pre>null</pre> when the instance is starting
+   * @param reconfiguring - whether a reconfiguration is in progress
+   * @param stopping - whether modules are being shut down
+   * @return status with the <pre>ready</pre> flag
+   */
+  static JsonObject status(List<ModuleDescriptor> modules, boolean reconfiguring,
+      boolean stopping) {
+    boolean started = modules != null;
+    boolean requiredFailed = started && modules.stream()
+        .anyMatch(module -> module.isRequired() && module.getState() != DeploymentState.SUCCESS);
+    JsonArray states = new JsonArray();
+    if (started) {
+      modules.forEach(module -> states.add(new JsonObject()
+          .put("alias", module.getAlias())
+          .put("name", module.getName())
+          .put("state", module.getState().name())
+          .put("required", module.isRequired())));
+    }
+    return new JsonObject()
+        .put("ready", started && !requiredFailed && !reconfiguring && !stopping)
+        .put("started", started)
+        .put("reconfiguring", reconfiguring)
+        .put("stopping", stopping)
+        .put("modules", states);
+  }
+
+  private void handle(HttpServerRequest request) {
+    if (request.method() != HttpMethod.GET) {
+      request.response().setStatusCode(NOT_FOUND).end();
+      return;
+    }
+    if (METRICS_PATH.equals(request.path())) {
+      request.response()
+          .putHeader("Content-Type", "text/plain; version=0.0.4; charset=utf-8")
+          .end(Metrics.inMemory(vertx.getDelegate()).toPrometheusText());
+      return;
+    }
+    JsonObject status = status(modules.get(), reconfiguring.getAsBoolean(),
+        stopping.getAsBoolean());
+    final int statusCode;
+    if (LIVENESS_PATH.equals(request.path())) {
+      statusCode = OK;
+    } else if (READINESS_PATH.equals(request.path())) {
+      statusCode = status.getBoolean("ready") ? OK : SERVICE_UNAVAILABLE;
+    } else {
+      request.response().setStatusCode(NOT_FOUND).end();
+      return;
+    }
+    request.response()
+        .setStatusCode(statusCode)
+        .putHeader("Content-Type", "application/json")
+        .end(status.encode());
+  }
+}
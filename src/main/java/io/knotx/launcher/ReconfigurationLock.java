@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.reactivex.core.RxHelper;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.shareddata.Lock;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of instances re-deploying modules at the same time. There are
+ * <pre>permits</pre> named locks from the Vert.x shared data, an instance has to hold any of
+ * them while re-deploying. In the clustered mode the locks are cluster wide, so at most
+ * <pre>permits</pre> nodes of the cluster reconfigure at a time, the others wait.
+ */
+class ReconfigurationLock {
+
+  static final String LOCK_NAME_PREFIX = "knotx.launcher.reconfiguration.";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReconfigurationLock.class);
+
+  private final Vertx vertx;
+  private final int permits;
+  private final long attemptTimeout;
+  private volatile boolean waiting;
+
+  /**
+   * @param vertx - vertx instance
+   * @param permits - maximum number of instances reconfiguring at a time
+   * @param attemptTimeout - time in milliseconds a single lock is awaited before trying the
+   * next one, and the delay before trying all locks again
+   */
+  ReconfigurationLock(Vertx vertx, int permits, long attemptTimeout) {
+    this.vertx = vertx;
+    this.permits = permits;
+    this.attemptTimeout = attemptTimeout;
+  }
+
+  /**
+   * Runs the work holding a permit. The permit is released when the work completes or fails.
+   *
+   * @param work - work to run
+   * @param <T> - work result type
+   * @return work result
+   */
+  <T> Single<T> guard(Single<T> work) {
+    return Single.defer(() -> {
+      waiting = true;
+      return acquire()
+          .doFinally(() -> waiting = false)
+          .flatMap(lock -> work.doFinally(lock::release));
+    });
+  }
+
+  /**
+   * @return whether the instance waits for a permit
+   */
+  boolean isWaiting() {
+    return waiting;
+  }
+
+  private Single<Lock> acquire() {
+    return Observable.range(0, permits)
+        .concatMapMaybe(permit -> tryLock(LOCK_NAME_PREFIX + permit))
+        .firstOrError()
+        .retryWhen(errors -> errors.flatMap(error -> {
+          if (!(error instanceof NoSuchElementException)) {
+            return Flowable.error(error);
+          }
+          LOGGER.info("All {} reconfiguration permits are taken, retrying in {} ms", permits,
+              attemptTimeout);
+          return Flowable.timer(attemptTimeout, TimeUnit.MILLISECONDS,
+              RxHelper.scheduler(vertx));
+        }));
+  }
+
+  private Maybe<Lock> tryLock(String name) {
+    return vertx.sharedData().rxGetLockWithTimeout(name, attemptTimeout)
+        .doOnSuccess(lock -> LOGGER.info("Reconfiguration permit {} acquired", name))
+        .toMaybe()
+        .onErrorComplete();
+  }
+}
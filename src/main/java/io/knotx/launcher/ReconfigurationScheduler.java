@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import io.reactivex.Completable;
+import io.reactivex.Single;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.reactivex.core.Vertx;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.function.Function;
+
+/**
+ * Serializes reconfiguration cycles. Only one cycle runs at a time, configurations submitted in
+ * the meantime are coalesced, so only the latest one is applied when the running cycle ends.
+ * With a quiet period, a submitted configuration is applied only when no other configuration
+ * was submitted for that period. Other operations changing deployed modules (the initial
+ * deployment, scaling, the shutdown) are executed in the same sequence, before pending
+ * configurations, so they never overlap a cycle. All methods must be called on the verticle
+ * context.
+ */
+class ReconfigurationScheduler {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReconfigurationScheduler.class);
+
+  private final Vertx vertx;
+  private final long quietPeriod;
+  private final Function<JsonObject, Completable> reconfiguration;
+
+  private final Queue<Runnable> operations = new ArrayDeque<>();
+
+  private JsonObject pending;
+  private boolean running;
+  private boolean reconfiguring;
+  private long quietTimerId = -1;
+
+  ReconfigurationScheduler(Vertx vertx, long quietPeriod,
+      Function<JsonObject, Completable> reconfiguration) {
+    this.vertx = vertx;
+    this.quietPeriod = quietPeriod;
+    this.reconfiguration = reconfiguration;
+  }
+
+  /**
+   * Schedules the reconfiguration, replacing any configuration that is not applied yet.
+   *
+   * @param configuration - new configuration
+   */
+  void submit(JsonObject configuration) {
+    if (pending != null) {
+      LOGGER.info("Configuration not applied yet replaced by a newer one");
+    }
+    pending = configuration;
+    if (quietPeriod > 0) {
+      if (quietTimerId != -1) {
+        vertx.cancelTimer(quietTimerId);
+      }
+      quietTimerId = vertx.setTimer(quietPeriod, timerId -> {
+        quietTimerId = -1;
+        runNext();
+      });
+    } else {
+      runNext();
+    }
+  }
+
+  /**
+   * Executes the operation when no reconfiguration cycle nor other operation is running.
+   *
+   * @param operation - operation changing deployed modules, subscribed on the verticle context
+   * @param <T> - operation result type
+   * @return the operation result
+   */
+  <T> Single<T> execute(Single<T> operation) {
+    return Single.create(emitter -> {
+      operations.add(() -> operation.subscribe(
+          result -> {
+            operationFinished();
+            emitter.onSuccess(result);
+          },
+          error -> {
+            operationFinished();
+            emitter.onError(error);
+          }));
+      runNext();
+    });
+  }
+
+  /**
+   * Drops the configuration that is not applied yet, e.g. when the instance stops. A running
+   * cycle and queued operations are not affected.
+   */
+  void cancelPending() {
+    pending = null;
+    if (quietTimerId != -1) {
+      vertx.cancelTimer(quietTimerId);
+      quietTimerId = -1;
+    }
+  }
+
+  /**
+   * @return whether a reconfiguration cycle is running or waiting to be run
+   */
+  boolean isReconfiguring() {
+    return reconfiguring || pending != null;
+  }
+
+  private void runNext() {
+    if (running) {
+      return;
+    }
+    Runnable operation = operations.poll();
+    if (operation != null) {
+      running = true;
+      operation.run();
+      return;
+    }
+    if (pending == null || quietTimerId != -1) {
+      return;
+    }
+    JsonObject configuration = pending;
+    pending = null;
+    running = true;
+    reconfiguring = true;
+    reconfiguration.apply(configuration)
+        .subscribe(this::cycleFinished, error -> {
+          LOGGER.error("Reconfiguration failed", error);
+          cycleFinished();
+        });
+  }
+
+  private void operationFinished() {
+    running = false;
+    vertx.runOnContext(v -> runNext());
+  }
+
+  private void cycleFinished() {
+    running = false;
+    reconfiguring = false;
+    runNext();
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.cli.annotations.Description;
+import io.vertx.core.cli.annotations.Name;
+import io.vertx.core.cli.annotations.Option;
+import io.vertx.core.cli.annotations.Summary;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.impl.launcher.commands.BareCommand;
+import io.vertx.core.impl.launcher.commands.ExecUtils;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.spi.cluster.ClusterManager;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+@Name("scale-knotx")
+@Summary("Scales a module of a running Knot.x cluster")
+@Description("Joins the cluster and asks the Knot.x instances to change the number of instances "
+    + "of the given module, without re-deploying it. The request is sent to every cluster node "
+    + "running Knot.x, or to the node given with the 'node' option.")
+public class ScaleCommand extends BareCommand {
+
+  /**
+   * Error code used when the scale request is rejected or not answered
+   */
+  private static final int SCALE_FAILED_EXIT_CODE = 31;
+
+  private static final long DEFAULT_SCALE_TIMEOUT = 60000L;
+
+  private String alias;
+  private int instances;
+  private long timeout = DEFAULT_SCALE_TIMEOUT;
+  private String node;
+
+  /**
+   * @param alias alias of the module to scale
+   */
+  @Option(longName = "alias", argName = "alias", required = true)
+  @Description("Alias of the module to scale.")
+  public void setAlias(String alias) {
+    this.alias = alias;
+  }
+
+  /**
+   * @param instances requested total number of module instances
+   */
+  @Option(longName = "instances", argName = "instances", required = true)
+  @Description("Requested total number of module instances. It can not be lower than the "
+      + "instances configured for the module.")
+  public void setInstances(int instances) {
+    this.instances = instances;
+  }
+
+  /**
+   * @param timeout time in milliseconds to wait for the reply
+   */
+  @Option(longName = "scale-timeout", argName = "timeout")
+  @Description("Time in milliseconds to wait for the scaling to complete, 60000 by default.")
+  public void setTimeout(long timeout) {
+    this.timeout = timeout;
+  }
+
+  /**
+   * @param node cluster node ID of the Knot.x instance to scale
+   */
+  @Option(longName = "node", argName = "node")
+  @Description("Cluster node ID of the Knot.x instance to scale, logged by the instance at "
+      + "start. When not set, every Knot.x instance of the cluster is scaled.")
+  public void setNode(String node) {
+    this.node = node;
+  }
+
+  /**
+   * The request can reach Knot.x instances only through the clustered event bus, so the command
+   * always joins the cluster, no <pre>-cluster</pre> option is required.
+   */
+  @Override
+  public boolean isClustered() {
+    return true;
+  }
+
+  /**
+   * The command only sends one request, so it never joins the cluster as a high-availability node
+   * that could receive failed over deployments.
+   */
+  @Override
+  public boolean getHA() {
+    return false;
+  }
+
+  /**
+   * Joins the cluster, sends the scale request and exits.
+   */
+  @Override
+  public void run() {
+    Vertx vertx = startVertx();
+    if (vertx == null) {
+      // Already logged.
+      ExecUtils.exitBecauseOfVertxInitializationIssue();
+    }
+    scale(vertx, exitCode -> vertx.close(done -> ExecUtils.exit(exitCode)));
+  }
+
+  /**
+   * Sends the scale request to the targeted Knot.x instances: the instance on the given node, or
+   * every cluster node when no node is given. Nodes not running Knot.x (e.g. this command) are
+   * skipped when the request is sent to every node.
+   *
+   * @param vertx - Vert.x instance the request is sent with
+   * @param onExit - called with the process exit code when all requests complete: <pre>0</pre>
+   * when every targeted instance is scaled, non-zero when any request is rejected or not answered
+   * in time, or no Knot.x instance is found
+   */
+  void scale(Vertx vertx, IntConsumer onExit) {
+    List<Future> requests = targetAddresses(vertx).stream()
+        .map(address -> request(vertx, address))
+        .collect(Collectors.toList());
+    CompositeFuture.join(requests).onComplete(ar -> {
+      if (ar.failed()) {
+        onExit.accept(SCALE_FAILED_EXIT_CODE);
+      } else if (!ar.result().list().contains(Boolean.TRUE)) {
+        log.error("Scaling module '" + alias + "' failed: no Knot.x instance found");
+        onExit.accept(SCALE_FAILED_EXIT_CODE);
+      } else {
+        onExit.accept(0);
+      }
+    });
+  }
+
+  private List<String> targetAddresses(Vertx vertx) {
+    if (node != null) {
+      return Collections.singletonList(KnotxStarterVerticle.scaleAddress(node));
+    } else if (vertx.isClustered()) {
+      ClusterManager clusterManager = ((VertxInternal) vertx).getClusterManager();
+      return clusterManager.getNodes().stream()
+          .filter(nodeId -> !nodeId.equals(clusterManager.getNodeID()))
+          .map(KnotxStarterVerticle::scaleAddress)
+          .collect(Collectors.toList());
+    } else {
+      return Collections.singletonList(KnotxStarterVerticle.SCALE_ADDRESS);
+    }
+  }
+
+  /**
+   * Completes with <pre>true</pre> when the instance is scaled and with <pre>false</pre> when the
+   * node is skipped, fails when the request is rejected or not answered in time.
+   */
+  private Future<Boolean> request(Vertx vertx, String address) {
+    JsonObject request = new JsonObject()
+        .put("alias", alias)
+        .put("instances", instances);
+    Promise<Boolean> result = Promise.promise();
+    vertx.eventBus().<JsonObject>request(address, request,
+        new DeliveryOptions().setSendTimeout(timeout), ar -> {
+          if (ar.succeeded()) {
+            log.info("Module scaled on " + address + ": " + ar.result().body().encode());
+            result.complete(true);
+          } else if (node == null && isNoHandlers(ar.cause())) {
+            result.complete(false);
+          } else {
+            log.error("Scaling module '" + alias + "' on " + address + " failed: "
+                + ar.cause().getMessage());
+            result.fail(ar.cause());
+          }
+        });
+    return result.future();
+  }
+
+  private static boolean isNoHandlers(Throwable error) {
+    return error instanceof ReplyException
+        && ((ReplyException) error).failureType() == ReplyFailure.NO_HANDLERS;
+  }
+}
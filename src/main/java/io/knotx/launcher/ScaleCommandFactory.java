@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import io.vertx.core.spi.launcher.DefaultCommandFactory;
+
+/**
+ * Factory to create the {@code scale-knotx} command.
+ */
+public class ScaleCommandFactory extends DefaultCommandFactory<ScaleCommand> {
+
+  /**
+   * Creates a new instance of {@link ScaleCommandFactory}.
+   */
+  public ScaleCommandFactory() {
+    super(ScaleCommand.class, ScaleCommand::new);
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.config;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of files included by the configuration stores processed by {@link ConfProcessor}.
+ * It is shared by all processors in the process and keeps the includes of the latest processing
+ * of each store.
+ */
+public final class ConfIncludes {
+
+  private static final Map<String, Set<Path>> INCLUDES = new ConcurrentHashMap<>();
+
+  private ConfIncludes() {
+    //util class
+  }
+
+  /**
+   * @return absolute paths of all files included by the processed configuration stores
+   */
+  public static Set<Path> getIncludedFiles() {
+    return Collections.unmodifiableSet(INCLUDES.values().stream()
+        .flatMap(Set::stream)
+        .collect(Collectors.toCollection(LinkedHashSet::new)));
+  }
+
+  static void register(String storeKey, List<FileStamp> includes) {
+    INCLUDES.put(storeKey, includes.stream()
+        .map(FileStamp::getFile)
+        .map(File::toPath)
+        .map(path -> path.toAbsolutePath().normalize())
+        .collect(Collectors.toCollection(LinkedHashSet::new)));
+  }
+}
@@ -15,31 +15,44 @@
  */
 package io.knotx.launcher.config;
 
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigIncludeContext;
 import com.typesafe.config.ConfigIncluder;
 import com.typesafe.config.ConfigObject;
 import com.typesafe.config.ConfigParseOptions;
-import com.typesafe.config.ConfigRenderOptions;
 import com.typesafe.config.ConfigResolveOptions;
 import com.typesafe.config.ConfigResolver;
 import com.typesafe.config.ConfigValue;
 import com.typesafe.config.ConfigValueFactory;
+import io.knotx.launcher.BootTimeline;
+import io.knotx.launcher.metrics.Metrics;
 import io.knotx.launcher.property.SystemProperties;
+import io.netty.buffer.ByteBufInputStream;
 import io.vertx.config.spi.ConfigProcessor;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.VertxException;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
 import java.io.File;
+import java.io.InputStreamReader;
 import java.io.Reader;
-import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import org.apache.commons.lang3.BooleanUtils;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.math.NumberUtils;
 
 /**
  * A processor using Typesafe Config to read Hocon files. It also support JSON and Properties. More
@@ -55,7 +68,20 @@ import org.apache.commons.lang3.math.NumberUtils;
  */
 public class ConfProcessor implements ConfigProcessor {
 
-  private SystemProperties properties = new SystemProperties();
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConfProcessor.class);
+  private static final String TIMEOUT_KEY = "timeout";
+  private static final IncludeCache INCLUDE_CACHE = new IncludeCache();
+
+  private final SystemProperties properties = SystemProperties.shared();
+  private final ProcessedConfCache cache = new ProcessedConfCache();
+
+  /**
+   * Removes all parsed includes shared by the processors of the JVM, so the next processing parses
+   * every include again.
+   */
+  static void clearIncludeCache() {
+    INCLUDE_CACHE.clear();
+  }
 
   /**
    * This is the store format that is defined in the stores configuration file (by default
@@ -73,52 +99,119 @@ public class ConfProcessor implements ConfigProcessor {
       Handler<AsyncResult<JsonObject>> handler) {
     // Use executeBlocking even if the bytes are in memory
     // Indeed, HOCON resolution can read others files (includes).
+    // Stores are processed unordered, so all stores of the retriever are parsed in parallel,
+    // the retriever merges them in the declared order.
+    String path = configuration.getString("path");
+    long processStart = System.nanoTime();
+    BootTimeline timeline = BootTimeline.get(vertx);
+    Handler<AsyncResult<JsonObject>> timedHandler = withTimeout(vertx, configuration, ar -> {
+      timeline.recordPhase("conf-store", processStart,
+          new JsonObject().put("path", path).put("succeeded", ar.succeeded()));
+      long processDuration = System.nanoTime() - processStart;
+      LOGGER.debug("Configuration store {} completed in {} ms", path,
+          TimeUnit.NANOSECONDS.toMillis(processDuration));
+      if (ar.succeeded()) {
+        Metrics.get(vertx).configProcessed(path != null ? path : name(), processDuration,
+            input.length());
+      }
+      handler.handle(ar);
+    });
     vertx.executeBlocking(
         future -> {
-          try (Reader reader = new StringReader(input.toString("UTF-8"))){
+          String cacheKey = configuration.encode();
+          HashCode inputHash = Hashing.murmur3_128().newHasher()
+              .putBytes(input.getByteBuf().nioBuffer())
+              .hash();
+          Optional<JsonObject> cached = cache.get(cacheKey, inputHash, properties);
+          if (cached.isPresent()) {
+            LOGGER.debug("Configuration {} not changed, using the cached result",
+                configuration.getString("path"));
+            future.complete(cached.get());
+            return;
+          }
+
+          // the parser streams directly from the input bytes, without a whole-content string
+          try (Reader reader = new InputStreamReader(new ByteBufInputStream(input.getByteBuf()),
+              StandardCharsets.UTF_8)) {
+            JsonObject details = new JsonObject().put("path", configuration.getString("path"));
+            KnotxConfIncluder includer = new KnotxConfIncluder(configuration);
+            SysPropResolver resolver = new SysPropResolver();
+
+            long start = System.nanoTime();
             Config conf = ConfigFactory.parseReader(reader,
-                ConfigParseOptions.defaults().appendIncluder(new KnotxConfIncluder(configuration)));
+                ConfigParseOptions.defaults().appendIncluder(includer));
+            timeline.recordPhase("conf-parse", start, details);
 
+            long resolveStart = System.nanoTime();
             conf = conf
-                .resolve(ConfigResolveOptions.defaults().appendResolver(new SysPropResolver()));
+                .resolve(ConfigResolveOptions.defaults().appendResolver(resolver));
+            timeline.recordPhase("conf-resolve", resolveStart, details);
+
+            long convertStart = System.nanoTime();
+            JsonObject json = ConfigJsonConverter.toJsonObject(conf.root());
+            timeline.recordPhase("conf-convert", convertStart, details);
 
-            String output = conf.root().render(ConfigRenderOptions.concise()
-                .setJson(true).setComments(false).setFormatted(false));
-            JsonObject json = new JsonObject(output);
+            LOGGER.debug("Configuration {} processed in {} ms", details.getString("path"),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            cache.put(cacheKey, inputHash, includer.getIncludes(), resolver.getLookups(), json);
+            ConfIncludes.register(cacheKey, includer.getIncludes());
+            ConfPropertyLookups.register(cacheKey, resolver.getLookups().keySet());
             future.complete(json);
           } catch (Exception e) {
             future.fail(e);
           }
         },
-        handler
+        false,
+        timedHandler
     );
   }
 
+  /**
+   * Fails the processing when it does not complete within the <pre>timeout</pre> (in
+   * milliseconds) defined in the store configuration. A late result is ignored.
+   */
+  private static Handler<AsyncResult<JsonObject>> withTimeout(Vertx vertx,
+      JsonObject configuration, Handler<AsyncResult<JsonObject>> handler) {
+    long timeout = configuration.getLong(TIMEOUT_KEY, 0L);
+    if (timeout <= 0) {
+      return handler;
+    }
+    AtomicBoolean completed = new AtomicBoolean();
+    long timerId = vertx.setTimer(timeout, id -> {
+      if (completed.compareAndSet(false, true)) {
+        handler.handle(Future.failedFuture(new VertxException(
+            "Processing of configuration " + configuration.getString("path")
+                + " timed out after " + timeout + " ms")));
+      }
+    });
+    return ar -> {
+      if (completed.compareAndSet(false, true)) {
+        vertx.cancelTimer(timerId);
+        handler.handle(ar);
+      }
+    };
+  }
+
   private class SysPropResolver implements ConfigResolver {
 
+    private final Map<String, String> lookups = new HashMap<>();
+
     @Override
     public ConfigValue lookup(String path) {
-      Optional<String> property = properties.getProperty(path);
-      if (property.isPresent() && StringUtils.isNotBlank(property.get())) {
-        String value = property.get();
-        if (NumberUtils.isCreatable(value)) {
-          return ConfigValueFactory.fromAnyRef(NumberUtils.toInt(value));
-        }
-        if (Boolean.TRUE.toString().equalsIgnoreCase(value) || Boolean.FALSE.toString()
-            .equalsIgnoreCase(value)) {
-          return ConfigValueFactory.fromAnyRef(BooleanUtils.toBoolean(value));
-        } else {
-          return ConfigValueFactory.fromAnyRef(value);
-        }
-      }
-
-      return null;
+      lookups.put(path, properties.getProperty(path).orElse(null));
+      return properties.getTypedProperty(path)
+          .map(ConfigValueFactory::fromAnyRef)
+          .orElse(null);
     }
 
     @Override
     public ConfigResolver withFallback(ConfigResolver fallback) {
       return fallback;
     }
+
+    Map<String, String> getLookups() {
+      return lookups;
+    }
   }
 
   /**
@@ -133,6 +226,7 @@ public class ConfProcessor implements ConfigProcessor {
    */
   private class KnotxConfIncluder implements ConfigIncluder {
 
+    private final List<FileStamp> includes = new ArrayList<>();
     private String configSearchFolder;
 
     KnotxConfIncluder(JsonObject configuration) {
@@ -155,7 +249,23 @@ public class ConfProcessor implements ConfigProcessor {
       } else {
         file = new File(configSearchFolder, what);
       }
-      return ConfigFactory.parseFile(file, context.parseOptions()).root();
+      String key = IncludeCache.key(file, configSearchFolder, context.parseOptions());
+      Optional<IncludeCache.Entry> cached = INCLUDE_CACHE.get(key);
+      if (cached.isPresent()) {
+        includes.addAll(cached.get().getStamps());
+        return cached.get().getRoot();
+      }
+
+      // nested includes are added to the includes while the file is parsed
+      int firstStamp = includes.size();
+      includes.add(FileStamp.of(file));
+      ConfigObject root = ConfigFactory.parseFile(file, context.parseOptions()).root();
+      INCLUDE_CACHE.put(key, root, includes.subList(firstStamp, includes.size()));
+      return root;
+    }
+
+    List<FileStamp> getIncludes() {
+      return includes;
     }
   }
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.config;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of system properties looked up while resolving the configuration stores processed by
+ * {@link ConfProcessor}. It is shared by all processors in the process and keeps the lookups of
+ * the latest processing of each store.
+ */
+public final class ConfPropertyLookups {
+
+  private static final Map<String, Set<String>> LOOKUPS = new ConcurrentHashMap<>();
+
+  private ConfPropertyLookups() {
+    //util class
+  }
+
+  /**
+   * @param keys - system property keys
+   * @return whether any of the given properties was used to resolve the configuration
+   */
+  public static boolean anyLookedUp(Set<String> keys) {
+    return LOOKUPS.values().stream().anyMatch(lookups -> !Collections.disjoint(lookups, keys));
+  }
+
+  static void register(String storeKey, Set<String> keys) {
+    LOOKUPS.put(storeKey, new HashSet<>(keys));
+  }
+}
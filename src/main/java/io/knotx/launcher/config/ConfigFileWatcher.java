@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.config;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Watches folders of configuration files with {@link WatchService} and notifies about changes.
+ * Only changes of the watched files are reported, and changes of entries starting with
+ * <pre>..</pre> that cover symbolic link swaps used e.g. by Kubernetes config maps (the
+ * <pre>..data</pre> link). Bursts of changes are coalesced: the handler is called once, when no
+ * change was detected for the debounce period. The handler is called on the context the watcher
+ * was created on.
+ */
+public class ConfigFileWatcher implements Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConfigFileWatcher.class);
+
+  private final Vertx vertx;
+  private final Context context;
+  private final long debounceMillis;
+  private final Handler<Void> changeHandler;
+  private final WatchService watchService;
+  private final Map<Path, WatchKey> folders = new ConcurrentHashMap<>();
+  private final Set<Path> excluded = ConcurrentHashMap.newKeySet();
+  private final Set<Path> files = ConcurrentHashMap.newKeySet();
+  private final Thread watchThread;
+  private long debounceTimerId = -1;
+
+  /**
+   * Creates the watcher and starts watching thread.
+   *
+   * @param vertx - Vert.x instance
+   * @param debounceMillis - quiet period after the last change before the handler is called
+   * @param changeHandler - handler called when watched files have changed
+   * @throws IOException when the watch service can not be created
+   */
+  public ConfigFileWatcher(Vertx vertx, long debounceMillis, Handler<Void> changeHandler)
+      throws IOException {
+    this.vertx = vertx;
+    this.context = vertx.getOrCreateContext();
+    this.debounceMillis = Math.max(1, debounceMillis);
+    this.changeHandler = changeHandler;
+    this.watchService = FileSystems.getDefault().newWatchService();
+    this.watchThread = new Thread(this::watchLoop, "knotx-config-watcher");
+    this.watchThread.setDaemon(true);
+    this.watchThread.start();
+  }
+
+  /**
+   * Starts watching folders of the given files. Files that do not exist in the file system (e.g.
+   * classpath resources) are skipped.
+   *
+   * @param files - configuration files
+   */
+  public void watch(Collection<Path> files) {
+    files.stream()
+        .map(file -> file.toAbsolutePath().normalize())
+        .filter(file -> file.getParent() != null && Files.isDirectory(file.getParent()))
+        .forEach(file -> {
+          this.files.add(file);
+          register(file.getParent());
+        });
+  }
+
+  /**
+   * Ignores changes of the given file and of files named with its name as a prefix (e.g. its
+   * temporary files), so files written by the launcher itself do not trigger reloads.
+   *
+   * @param file - file to ignore
+   */
+  public void exclude(Path file) {
+    excluded.add(file.toAbsolutePath().normalize());
+  }
+
+  /**
+   * @return whether the watching thread is running
+   */
+  boolean isRunning() {
+    return watchThread.isAlive();
+  }
+
+  @Override
+  public void close() {
+    try {
+      watchService.close();
+    } catch (IOException e) {
+      LOGGER.warn("Unable to close configuration watch service", e);
+    }
+    watchThread.interrupt();
+  }
+
+  private void register(Path folder) {
+    folders.computeIfAbsent(folder, key -> {
+      try {
+        LOGGER.debug("Watching configuration folder {}", folder);
+        return folder.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+      } catch (IOException | ClosedWatchServiceException e) {
+        LOGGER.warn("Unable to watch configuration folder {}", folder, e);
+        return null;
+      }
+    });
+  }
+
+  private void watchLoop() {
+    while (!Thread.currentThread().isInterrupted()) {
+      WatchKey key;
+      try {
+        key = watchService.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (ClosedWatchServiceException e) {
+        return;
+      }
+      Path folder = (Path) key.watchable();
+      boolean changed = key.pollEvents().stream()
+          .anyMatch(event -> isRelevant(folder, event));
+      if (!key.reset()) {
+        folders.values().remove(key);
+      }
+      if (changed) {
+        context.runOnContext(v -> debounce());
+      }
+    }
+  }
+
+  private boolean isRelevant(Path folder, WatchEvent<?> event) {
+    if (!(event.context() instanceof Path)) {
+      // overflow, some events may be lost
+      return true;
+    }
+    Path changed = folder.resolve((Path) event.context());
+    String name = changed.getFileName().toString();
+    boolean excludedFile = excluded.stream().anyMatch(file -> folder.equals(file.getParent())
+        && name.startsWith(file.getFileName().toString()));
+    return !excludedFile && (files.contains(changed) || name.startsWith(".."));
+  }
+
+  private void debounce() {
+    if (debounceTimerId != -1) {
+      vertx.cancelTimer(debounceTimerId);
+    }
+    debounceTimerId = vertx.setTimer(debounceMillis, timerId -> {
+      debounceTimerId = -1;
+      LOGGER.info("Configuration files changed");
+      changeHandler.handle(null);
+    });
+  }
+}
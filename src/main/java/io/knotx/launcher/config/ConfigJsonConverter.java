@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.config;
+
+import com.typesafe.config.ConfigList;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigValue;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Converts resolved Typesafe Config values directly into Vert.x JSON structures, without
+ * rendering them to a JSON string and parsing it again. Numbers keep the type they were parsed
+ * with (<pre>Integer</pre>, <pre>Long</pre> or <pre>Double</pre>).
+ */
+final class ConfigJsonConverter {
+
+  private ConfigJsonConverter() {
+    //util class
+  }
+
+  static JsonObject toJsonObject(ConfigObject object) {
+    JsonObject json = new JsonObject();
+    object.forEach((key, value) -> json.put(key, toJsonValue(value)));
+    return json;
+  }
+
+  static JsonArray toJsonArray(ConfigList list) {
+    JsonArray json = new JsonArray();
+    list.forEach(value -> json.add(toJsonValue(value)));
+    return json;
+  }
+
+  private static Object toJsonValue(ConfigValue value) {
+    switch (value.valueType()) {
+      case OBJECT:
+        return toJsonObject((ConfigObject) value);
+      case LIST:
+        return toJsonArray((ConfigList) value);
+      case NULL:
+        return null;
+      default:
+        // STRING, NUMBER and BOOLEAN unwrap to String, Integer / Long / Double and Boolean
+        return value.unwrapped();
+    }
+  }
+}
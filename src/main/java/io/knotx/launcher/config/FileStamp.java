@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.config;
+
+import io.vertx.core.json.JsonObject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A snapshot of the file modification time (with the precision the file system provides, up to
+ * nanoseconds) and size. It is used to detect whether a file has changed since it was read,
+ * without reading the file again. Millisecond (or on some file systems second) precision is not
+ * enough, a file rewritten with the same size right after it was read would not be detected.
+ */
+public final class FileStamp {
+
+  private static final String PATH_KEY = "path";
+  private static final String LAST_MODIFIED_NANOS_KEY = "lastModifiedNanos";
+  private static final String LENGTH_KEY = "length";
+
+  private final File file;
+  private final long lastModifiedNanos;
+  private final long length;
+
+  private FileStamp(File file, long lastModifiedNanos, long length) {
+    this.file = file;
+    this.lastModifiedNanos = lastModifiedNanos;
+    this.length = length;
+  }
+
+  /**
+   * Takes the current stamp of the file. A missing file gets zero modification time and size, so
+   * creating it later is detected as a change.
+   *
+   * @param file - file
+   * @return current stamp
+   */
+  public static FileStamp of(File file) {
+    return new FileStamp(file, lastModifiedNanos(file), file.length());
+  }
+
+  /**
+   * Reads the stamp stored with {@link #toJson()}. A stamp without the modification time or size
+   * (e.g. stored by an older version) never matches the current file state.
+   *
+   * @param json - stored stamp
+   * @return the stamp
+   */
+  public static FileStamp fromJson(JsonObject json) {
+    return new FileStamp(new File(json.getString(PATH_KEY)),
+        json.getLong(LAST_MODIFIED_NANOS_KEY, -1L), json.getLong(LENGTH_KEY, -1L));
+  }
+
+  /**
+   * @return the stamp as JSON, with the absolute file path
+   */
+  public JsonObject toJson() {
+    return new JsonObject()
+        .put(PATH_KEY, file.getAbsolutePath())
+        .put(LAST_MODIFIED_NANOS_KEY, lastModifiedNanos)
+        .put(LENGTH_KEY, length);
+  }
+
+  private static long lastModifiedNanos(File file) {
+    try {
+      return Files.getLastModifiedTime(file.toPath()).to(TimeUnit.NANOSECONDS);
+    } catch (IOException e) {
+      return 0L;
+    }
+  }
+
+  File getFile() {
+    return file;
+  }
+
+  /**
+   * @return whether the file has not changed since the stamp was taken
+   */
+  public boolean isCurrent() {
+    return equals(of(file));
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    FileStamp fileStamp = (FileStamp) o;
+    return lastModifiedNanos == fileStamp.lastModifiedNanos &&
+        length == fileStamp.length &&
+        Objects.equals(file, fileStamp.file);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(file, lastModifiedNanos, length);
+  }
+
+  @Override
+  public String toString() {
+    return "FileStamp{" +
+        "file=" + file +
+        ", lastModifiedNanos=" + lastModifiedNanos +
+        ", length=" + length +
+        '}';
+  }
+}
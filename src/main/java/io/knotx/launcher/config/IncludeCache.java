@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.config;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigParseOptions;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cache of parsed include files. An entry is identified by the canonical path of the included
+ * file, the folder nested includes are searched in and the parse options, and it is valid as long
+ * as the included file and all files it includes have not changed. Parsed objects are immutable,
+ * so they are shared without copying. The cache is shared by all processors of the JVM, so it is
+ * bounded: stale entries are removed when found, and the least recently used entries are evicted
+ * when there are more than {@link #DEFAULT_MAX_ENTRIES}.
+ */
+class IncludeCache {
+
+  static final int DEFAULT_MAX_ENTRIES = 256;
+
+  private final Cache<String, Entry> entries;
+
+  IncludeCache() {
+    this(DEFAULT_MAX_ENTRIES);
+  }
+
+  IncludeCache(int maxEntries) {
+    entries = CacheBuilder.newBuilder()
+        .maximumSize(maxEntries)
+        .build();
+  }
+
+  /**
+   * Gets the parsed include if the entry is still valid.
+   *
+   * @param key - include key, see {@link #key(File, String, ConfigParseOptions)}
+   * @return cached include
+   */
+  Optional<Entry> get(String key) {
+    Entry entry = entries.getIfPresent(key);
+    if (entry == null) {
+      return Optional.empty();
+    }
+    if (entry.stamps.stream().allMatch(FileStamp::isCurrent)) {
+      return Optional.of(entry);
+    }
+    entries.invalidate(key);
+    return Optional.empty();
+  }
+
+  /**
+   * Caches the parsed include.
+   *
+   * @param key - include key, see {@link #key(File, String, ConfigParseOptions)}
+   * @param root - parsed include
+   * @param stamps - stamps of the included file and all files it includes, taken before parsing
+   */
+  void put(String key, ConfigObject root, List<FileStamp> stamps) {
+    entries.put(key, new Entry(root, stamps));
+  }
+
+  /**
+   * Removes all cached includes.
+   */
+  void clear() {
+    entries.invalidateAll();
+  }
+
+  /**
+   * @return number of cached includes
+   */
+  long size() {
+    return entries.size();
+  }
+
+  static String key(File file, String searchFolder, ConfigParseOptions options) {
+    String path;
+    try {
+      path = file.getCanonicalPath();
+    } catch (IOException e) {
+      path = file.getAbsolutePath();
+    }
+    return path + '|' + searchFolder + '|' + options.getAllowMissing() + '|'
+        + options.getSyntax();
+  }
+
+  static final class Entry {
+
+    private final ConfigObject root;
+    private final List<FileStamp> stamps;
+
+    private Entry(ConfigObject root, List<FileStamp> stamps) {
+      this.root = root;
+      this.stamps = Collections.unmodifiableList(new ArrayList<>(stamps));
+    }
+
+    ConfigObject getRoot() {
+      return root;
+    }
+
+    List<FileStamp> getStamps() {
+      return stamps;
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.config;
+
+import com.google.common.hash.HashCode;
+import io.knotx.launcher.property.SystemProperties;
+import io.vertx.core.json.JsonObject;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of processed configurations. An entry is valid as long as the processed input has the
+ * same hash, all files included while parsing it have not changed and all system properties
+ * used to resolve it have the same values. Includes loaded from the classpath are not tracked.
+ */
+class ProcessedConfCache {
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Gets a copy of the cached configuration if the entry is still valid.
+   *
+   * @param key - a key identifying the store
+   * @param inputHash - hash of the store content
+   * @param properties - system properties used to validate the property lookups
+   * @return cached configuration
+   */
+  Optional<JsonObject> get(String key, HashCode inputHash, SystemProperties properties) {
+    Entry entry = entries.get(key);
+    if (entry != null && entry.isValid(inputHash, properties)) {
+      return Optional.of(entry.configuration.copy());
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Caches the processed configuration.
+   *
+   * @param key - a key identifying the store
+   * @param inputHash - hash of the store content
+   * @param includes - stamps of all files included while parsing
+   * @param lookups - system properties (with their values) used while resolving, absent
+   * properties have <pre>null</pre> values
+   * @param configuration - processed configuration
+   */
+  void put(String key, HashCode inputHash, List<FileStamp> includes,
+      Map<String, String> lookups, JsonObject configuration) {
+    entries.put(key, new Entry(inputHash, includes, lookups, configuration.copy()));
+  }
+
+  private static final class Entry {
+
+    private final HashCode inputHash;
+    private final List<FileStamp> includes;
+    private final Map<String, String> lookups;
+    private final JsonObject configuration;
+
+    private Entry(HashCode inputHash, List<FileStamp> includes, Map<String, String> lookups,
+        JsonObject configuration) {
+      this.inputHash = inputHash;
+      this.includes = Collections.unmodifiableList(includes);
+      this.lookups = Collections.unmodifiableMap(new HashMap<>(lookups));
+      this.configuration = configuration;
+    }
+
+    private boolean isValid(HashCode currentInputHash, SystemProperties properties) {
+      return inputHash.equals(currentInputHash)
+          && includes.stream().allMatch(FileStamp::isCurrent)
+          && lookups.entrySet().stream().allMatch(lookup -> Objects.equals(lookup.getValue(),
+          properties.getProperty(lookup.getKey()).orElse(null)));
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.helper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * Detects the number of CPU cores available to the process: the number reported by the JVM,
+ * limited by the container CPU quota (cgroup v2 <pre>cpu.max</pre> or cgroup v1
+ * <pre>cpu.cfs_quota_us</pre> / <pre>cpu.cfs_period_us</pre>) when it is set.
+ */
+public final class AvailableCoresHelper {
+
+  private static final Path CGROUP_V2_CPU_MAX = Paths.get("/sys/fs/cgroup/cpu.max");
+  private static final Path CGROUP_V1_QUOTA = Paths.get("/sys/fs/cgroup/cpu/cpu.cfs_quota_us");
+  private static final Path CGROUP_V1_PERIOD = Paths.get("/sys/fs/cgroup/cpu/cpu.cfs_period_us");
+
+  private static final int AVAILABLE_CORES = detect();
+
+  private AvailableCoresHelper() {
+    //helper constructor
+  }
+
+  /**
+   * @return number of cores available to the process, detected once per JVM
+   */
+  public static int availableCores() {
+    return AVAILABLE_CORES;
+  }
+
+  private static int detect() {
+    int processors = Runtime.getRuntime().availableProcessors();
+    OptionalInt quota = cgroupV2Quota();
+    if (!quota.isPresent()) {
+      quota = cgroupV1Quota();
+    }
+    return quota.isPresent() ? Math.max(1, Math.min(processors, quota.getAsInt())) : processors;
+  }
+
+  private static OptionalInt cgroupV2Quota() {
+    // format: "<quota> <period>" or "max <period>" when not limited
+    String[] values = readFirstLine(CGROUP_V2_CPU_MAX).split("\\s+");
+    if (values.length != 2) {
+      return OptionalInt.empty();
+    }
+    return toCores(values[0], values[1]);
+  }
+
+  private static OptionalInt cgroupV1Quota() {
+    return toCores(readFirstLine(CGROUP_V1_QUOTA), readFirstLine(CGROUP_V1_PERIOD));
+  }
+
+  private static OptionalInt toCores(String quota, String period) {
+    try {
+      long quotaMicros = Long.parseLong(quota.trim());
+      long periodMicros = Long.parseLong(period.trim());
+      if (quotaMicros <= 0 || periodMicros <= 0) {
+        return OptionalInt.empty();
+      }
+      return OptionalInt.of((int) Math.ceil((double) quotaMicros / periodMicros));
+    } catch (NumberFormatException e) {
+      // not limited ("max", "-1") or not available
+      return OptionalInt.empty();
+    }
+  }
+
+  private static String readFirstLine(Path path) {
+    if (!Files.isReadable(path)) {
+      return "";
+    }
+    try {
+      List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+      return lines.isEmpty() ? "" : lines.get(0);
+    } catch (IOException e) {
+      return "";
+    }
+  }
+}
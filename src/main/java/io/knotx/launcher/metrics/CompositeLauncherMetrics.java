@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.metrics;
+
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Passes measurements to all delegates. A failing delegate does not affect the others.
+ */
+class CompositeLauncherMetrics implements LauncherMetrics {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CompositeLauncherMetrics.class);
+
+  private final List<LauncherMetrics> delegates;
+
+  CompositeLauncherMetrics(List<LauncherMetrics> delegates) {
+    this.delegates = delegates;
+  }
+
+  @Override
+  public void configProcessed(String store, long durationNanos, long sizeBytes) {
+    forEach(metrics -> metrics.configProcessed(store, durationNanos, sizeBytes));
+  }
+
+  @Override
+  public void configReloaded() {
+    forEach(LauncherMetrics::configReloaded);
+  }
+
+  @Override
+  public void moduleDeployed(String alias, long durationNanos, boolean succeeded, int instances) {
+    forEach(metrics -> metrics.moduleDeployed(alias, durationNanos, succeeded, instances));
+  }
+
+  @Override
+  public void moduleUndeployed(String alias, long durationNanos, int instances) {
+    forEach(metrics -> metrics.moduleUndeployed(alias, durationNanos, instances));
+  }
+
+  private void forEach(Consumer<LauncherMetrics> measurement) {
+    delegates.forEach(metrics -> {
+      try {
+        measurement.accept(metrics);
+      } catch (RuntimeException e) {
+        LOGGER.warn("Metrics {} failed", metrics.getClass().getName(), e);
+      }
+    });
+  }
+}
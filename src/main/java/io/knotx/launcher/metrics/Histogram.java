@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread safe histogram of durations in seconds with fixed buckets.
+ */
+final class Histogram {
+
+  static final double[] BUCKETS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30,
+      60};
+
+  private final LongAdder[] counts = new LongAdder[BUCKETS.length];
+  private final LongAdder count = new LongAdder();
+  private final DoubleAdder sum = new DoubleAdder();
+
+  Histogram() {
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = new LongAdder();
+    }
+  }
+
+  void observeNanos(long durationNanos) {
+    double seconds = durationNanos / (double) TimeUnit.SECONDS.toNanos(1);
+    for (int i = 0; i < BUCKETS.length; i++) {
+      if (seconds <= BUCKETS[i]) {
+        counts[i].increment();
+        break;
+      }
+    }
+    count.increment();
+    sum.add(seconds);
+  }
+
+  /**
+   * @return cumulative counts of observations lower or equal to the respective bucket bound
+   */
+  long[] cumulativeCounts() {
+    long[] cumulative = new long[BUCKETS.length];
+    long total = 0;
+    for (int i = 0; i < BUCKETS.length; i++) {
+      total += counts[i].sum();
+      cumulative[i] = total;
+    }
+    return cumulative;
+  }
+
+  long count() {
+    return count.sum();
+  }
+
+  double sum() {
+    return sum.sum();
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The built-in registry keeping all launcher measurements in memory. Use {@link
+ * #toPrometheusText()} to export them.
+ */
+public class InMemoryLauncherMetrics implements LauncherMetrics {
+
+  private final Map<String, Histogram> configProcessing = new ConcurrentHashMap<>();
+  private final Map<String, AtomicLong> configSizes = new ConcurrentHashMap<>();
+  private final LongAdder configReloads = new LongAdder();
+  private final Map<String, Histogram> moduleDeployments = new ConcurrentHashMap<>();
+  private final Map<String, Histogram> moduleUndeployments = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> moduleFailures = new ConcurrentHashMap<>();
+  private final Map<String, AtomicLong> moduleInstances = new ConcurrentHashMap<>();
+
+  @Override
+  public void configProcessed(String store, long durationNanos, long sizeBytes) {
+    configProcessing.computeIfAbsent(store, key -> new Histogram()).observeNanos(durationNanos);
+    configSizes.computeIfAbsent(store, key -> new AtomicLong()).set(sizeBytes);
+  }
+
+  @Override
+  public void configReloaded() {
+    configReloads.increment();
+  }
+
+  @Override
+  public void moduleDeployed(String alias, long durationNanos, boolean succeeded, int instances) {
+    moduleDeployments.computeIfAbsent(alias, key -> new Histogram()).observeNanos(durationNanos);
+    if (succeeded) {
+      moduleInstances.computeIfAbsent(alias, key -> new AtomicLong()).addAndGet(instances);
+    } else {
+      moduleFailures.computeIfAbsent(alias, key -> new LongAdder()).increment();
+    }
+  }
+
+  @Override
+  public void moduleUndeployed(String alias, long durationNanos, int instances) {
+    moduleUndeployments.computeIfAbsent(alias, key -> new Histogram()).observeNanos(durationNanos);
+    moduleInstances.computeIfAbsent(alias, key -> new AtomicLong()).addAndGet(-instances);
+  }
+
+  /**
+   * @return all metrics in the Prometheus text exposition format
+   */
+  public String toPrometheusText() {
+    return new PrometheusTextExporter()
+        .histogram("knotx_config_process_seconds", "Configuration store processing time",
+            "store", configProcessing)
+        .gauge("knotx_config_size_bytes", "Configuration store size", "store", configSizes)
+        .counter("knotx_config_reloads_total", "Applied configuration changes",
+            configReloads.sum())
+        .histogram("knotx_module_deploy_seconds", "Module deployment time", "alias",
+            moduleDeployments)
+        .histogram("knotx_module_undeploy_seconds", "Module undeployment time", "alias",
+            moduleUndeployments)
+        .counter("knotx_module_deploy_failures_total", "Failed module deployments", "alias",
+            moduleFailures)
+        .gauge("knotx_module_instances", "Deployed verticle instances", "alias", moduleInstances)
+        .export();
+  }
+}
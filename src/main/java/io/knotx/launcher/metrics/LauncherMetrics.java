@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.metrics;
+
+/**
+ * Receives launcher measurements. Implementations are loaded with the {@link
+ * java.util.ServiceLoader} mechanism (register them in
+ * <pre>META-INF/services/io.knotx.launcher.metrics.LauncherMetrics</pre>) in addition to the
+ * built-in {@link InMemoryLauncherMetrics}, see {@link Metrics}. Methods are called from event
+ * loop and worker threads, so implementations must be thread safe and must not block.
+ */
+public interface LauncherMetrics {
+
+  /**
+   * Called when a configuration store is processed.
+   *
+   * @param store - store path, or the store format when the store has no path
+   * @param durationNanos - processing time
+   * @param sizeBytes - size of the store content
+   */
+  void configProcessed(String store, long durationNanos, long sizeBytes);
+
+  /**
+   * Called when a changed configuration is applied by re-deploying at least one module. Changes
+   * that affect no module are not reported.
+   */
+  void configReloaded();
+
+  /**
+   * Called when a module deployment completes.
+   *
+   * @param alias - module alias
+   * @param durationNanos - deployment time
+   * @param succeeded - whether the module was deployed
+   * @param instances - number of deployed verticle instances
+   */
+  void moduleDeployed(String alias, long durationNanos, boolean succeeded, int instances);
+
+  /**
+   * Called when a module is undeployed.
+   *
+   * @param alias - module alias
+   * @param durationNanos - undeployment time
+   * @param instances - number of undeployed verticle instances
+   */
+  void moduleUndeployed(String alias, long durationNanos, int instances);
+}
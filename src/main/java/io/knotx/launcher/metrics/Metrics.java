@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.metrics;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Access point to the launcher metrics shared by all launcher components of a Vert.x instance.
+ * Measurements are passed to the built-in {@link InMemoryLauncherMetrics} and to all {@link
+ * LauncherMetrics} implementations registered with the {@link ServiceLoader} mechanism. Each
+ * Vert.x instance has its own metrics, kept in its local shared data, so instances running in
+ * the same JVM (e.g. in tests) do not mix their measurements.
+ */
+public final class Metrics {
+
+  private static final String METRICS_MAP = "knotx.launcher.metrics";
+  private static final String REGISTRY_KEY = "registry";
+
+  private Metrics() {
+    //util class
+  }
+
+  /**
+   * @param vertx - vertx instance
+   * @return metrics that pass measurements to all registered implementations
+   */
+  public static LauncherMetrics get(Vertx vertx) {
+    return registry(vertx).shared;
+  }
+
+  /**
+   * @param vertx - vertx instance
+   * @return the built-in in-memory registry
+   */
+  public static InMemoryLauncherMetrics inMemory(Vertx vertx) {
+    return registry(vertx).inMemory;
+  }
+
+  private static Registry registry(Vertx vertx) {
+    LocalMap<String, Registry> map = vertx.sharedData().getLocalMap(METRICS_MAP);
+    return map.computeIfAbsent(REGISTRY_KEY, key -> new Registry());
+  }
+
+  private static final class Registry implements Shareable {
+
+    private final InMemoryLauncherMetrics inMemory = new InMemoryLauncherMetrics();
+    private final LauncherMetrics shared = new CompositeLauncherMetrics(loadAll(inMemory));
+
+    private static List<LauncherMetrics> loadAll(InMemoryLauncherMetrics inMemory) {
+      List<LauncherMetrics> all = new ArrayList<>();
+      all.add(inMemory);
+      ServiceLoader.load(LauncherMetrics.class).forEach(all::add);
+      return Collections.unmodifiableList(all);
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes metrics in the
+ * <a href="https://prometheus.io/docs/instrumenting/exposition_formats/">Prometheus text
+ * exposition format</a>. Series of a metric are ordered by the label value.
+ */
+class PrometheusTextExporter {
+
+  private final StringBuilder text = new StringBuilder();
+
+  PrometheusTextExporter counter(String name, String help, long value) {
+    header(name, help, "counter");
+    sample(name, "", value);
+    return this;
+  }
+
+  PrometheusTextExporter counter(String name, String help, String label,
+      Map<String, ? extends Number> values) {
+    return numbers(name, help, "counter", label, values);
+  }
+
+  PrometheusTextExporter gauge(String name, String help, String label,
+      Map<String, ? extends Number> values) {
+    return numbers(name, help, "gauge", label, values);
+  }
+
+  PrometheusTextExporter histogram(String name, String help, String label,
+      Map<String, Histogram> histograms) {
+    header(name, help, "histogram");
+    new TreeMap<>(histograms).forEach((labelValue, histogram) -> {
+      String labels = label + "=\"" + escape(labelValue) + "\"";
+      long[] cumulative = histogram.cumulativeCounts();
+      for (int i = 0; i < Histogram.BUCKETS.length; i++) {
+        sample(name + "_bucket", labels + ",le=\"" + Histogram.BUCKETS[i] + "\"", cumulative[i]);
+      }
+      long count = histogram.count();
+      sample(name + "_bucket", labels + ",le=\"+Inf\"", count);
+      sample(name + "_sum", labels, histogram.sum());
+      sample(name + "_count", labels, count);
+    });
+    return this;
+  }
+
+  String export() {
+    return text.toString();
+  }
+
+  private PrometheusTextExporter numbers(String name, String help, String type, String label,
+      Map<String, ? extends Number> values) {
+    header(name, help, type);
+    new TreeMap<>(values).forEach((labelValue, value) ->
+        sample(name, label + "=\"" + escape(labelValue) + "\"", value));
+    return this;
+  }
+
+  private void header(String name, String help, String type) {
+    text.append("# HELP ").append(name).append(' ').append(help).append('\n')
+        .append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private void sample(String name, String labels, Number value) {
+    text.append(name);
+    if (!labels.isEmpty()) {
+      text.append('{').append(labels).append('}');
+    }
+    text.append(' ').append(value).append('\n');
+  }
+
+  private static String escape(String labelValue) {
+    return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.property;
+
+import io.knotx.launcher.config.FileStamp;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link SystemPropertyProvider} exposing properties from a local properties file, e.g. a
+ * secret file mounted into a container. The file path is defined with the
+ * <pre>knotx.propertiesFile</pre> System property, when it is not set the provider exposes no
+ * properties. The file is checked for modifications every
+ * <pre>knotx.propertiesFile.scanPeriod</pre> milliseconds (5000 by default) and every
+ * modification publishes a change event. The watching thread is stopped when the provider is
+ * closed.
+ */
+public class FileSystemPropertyProvider implements SystemPropertyProvider {
+
+  static final String PROPERTIES_FILE_PROPERTY = "knotx.propertiesFile";
+  static final String SCAN_PERIOD_PROPERTY = "knotx.propertiesFile.scanPeriod";
+  private static final long DEFAULT_SCAN_PERIOD = 5000L;
+  private static final Logger LOGGER = LoggerFactory.getLogger(FileSystemPropertyProvider.class);
+
+  private final File file;
+  private final long scanPeriod;
+  private volatile Properties properties = new Properties();
+  private FileStamp stamp;
+  private ScheduledExecutorService scanner;
+
+  public FileSystemPropertyProvider() {
+    this(System.getProperty(PROPERTIES_FILE_PROPERTY),
+        Long.getLong(SCAN_PERIOD_PROPERTY, DEFAULT_SCAN_PERIOD));
+  }
+
+  FileSystemPropertyProvider(String path, long scanPeriod) {
+    this.file = path == null ? null : new File(path);
+    this.scanPeriod = scanPeriod;
+    reload();
+  }
+
+  @Override
+  public Properties getProperties() {
+    return properties;
+  }
+
+  @Override
+  public synchronized void setChangeListener(Runnable listener) {
+    if (file == null || scanner != null) {
+      return;
+    }
+    scanner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "knotx-properties-file-scanner");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scanner.scheduleWithFixedDelay(() -> {
+      try {
+        if (reload()) {
+          LOGGER.info("Properties file {} changed", file);
+          listener.run();
+        }
+      } catch (RuntimeException e) {
+        LOGGER.error("Unable to refresh properties from {}", file, e);
+      }
+    }, scanPeriod, scanPeriod, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public synchronized void close() {
+    if (scanner != null) {
+      scanner.shutdownNow();
+    }
+  }
+
+  /**
+   * @return whether the file is watched for modifications
+   */
+  synchronized boolean isScanning() {
+    return scanner != null && !scanner.isShutdown();
+  }
+
+  /**
+   * Reads the file when it was modified since the last read.
+   *
+   * @return whether properties were read again
+   */
+  synchronized boolean reload() {
+    if (file == null) {
+      return false;
+    }
+    FileStamp current = FileStamp.of(file);
+    if (current.equals(stamp)) {
+      return false;
+    }
+    Properties loaded = new Properties();
+    if (file.isFile()) {
+      try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+        loaded.load(reader);
+      } catch (IOException e) {
+        LOGGER.warn("Unable to read properties from {}", file, e);
+        return false;
+      }
+    }
+    stamp = current;
+    properties = loaded;
+    return true;
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.property;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+import io.knotx.launcher.BadKnotxConfigurationException;
+import java.time.Duration;
+import java.util.function.Function;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+/**
+ * Conversions of property values to typed values. Durations and sizes use the HOCON format, e.g.
+ * <pre>10s</pre>, <pre>500 ms</pre>, <pre>512KiB</pre>, <pre>1M</pre>.
+ */
+final class PropertyConverters {
+
+  private static final String VALUE_PATH = "value";
+
+  private PropertyConverters() {
+    //util class
+  }
+
+  static Integer toInt(String key, String value) {
+    return convert(key, value, "int", v -> Integer.valueOf(v.trim()));
+  }
+
+  static Long toLong(String key, String value) {
+    return convert(key, value, "long", v -> Long.valueOf(v.trim()));
+  }
+
+  static Double toDouble(String key, String value) {
+    return convert(key, value, "double", v -> Double.valueOf(v.trim()));
+  }
+
+  static Boolean toBoolean(String key, String value) {
+    return convert(key, value, "boolean", v -> {
+      if (Boolean.TRUE.toString().equalsIgnoreCase(v.trim())
+          || Boolean.FALSE.toString().equalsIgnoreCase(v.trim())) {
+        return Boolean.valueOf(v.trim());
+      }
+      throw new IllegalArgumentException(v);
+    });
+  }
+
+  static Duration toDuration(String key, String value) {
+    return convert(key, value, "duration", v -> asConfig(v).getDuration(VALUE_PATH));
+  }
+
+  static Long toBytes(String key, String value) {
+    return convert(key, value, "size", v -> asConfig(v).getBytes(VALUE_PATH));
+  }
+
+  /**
+   * Converts the value to the most specific type: a boolean, an int, a long, a double or a
+   * string. Numbers that do not fit any of the number types (e.g. hexadecimal ones) are kept as
+   * strings, so they are never silently truncated.
+   *
+   * @param value - property value
+   * @return typed value
+   */
+  static Object toTypedValue(String value) {
+    String trimmed = value.trim();
+    if (Boolean.TRUE.toString().equalsIgnoreCase(trimmed)
+        || Boolean.FALSE.toString().equalsIgnoreCase(trimmed)) {
+      return Boolean.valueOf(trimmed);
+    }
+    if (NumberUtils.isCreatable(trimmed)) {
+      try {
+        return Integer.valueOf(trimmed);
+      } catch (NumberFormatException notInt) {
+        // try wider types
+      }
+      try {
+        return Long.valueOf(trimmed);
+      } catch (NumberFormatException notLong) {
+        // try decimal types
+      }
+      if (StringUtils.containsAny(trimmed, '.', 'e', 'E')) {
+        try {
+          return Double.valueOf(trimmed);
+        } catch (NumberFormatException notDouble) {
+          // keep the string
+        }
+      }
+    }
+    return value;
+  }
+
+  private static <T> T convert(String key, String value, String type,
+      Function<String, T> converter) {
+    try {
+      return converter.apply(value);
+    } catch (IllegalArgumentException | ConfigException e) {
+      throw new BadKnotxConfigurationException(
+          "System property '" + key + "' value '" + value + "' is not a valid " + type);
+    }
+  }
+
+  private static Config asConfig(String value) {
+    return ConfigFactory.empty().withValue(VALUE_PATH, ConfigValueFactory.fromAnyRef(value));
+  }
+}
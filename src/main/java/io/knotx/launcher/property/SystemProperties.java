@@ -15,32 +15,76 @@
  */
 package io.knotx.launcher.property;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import org.apache.commons.lang3.StringUtils;
 
 /**
  * This class loads all {@link SystemPropertyProvider} implementations using the {@link
  * ServiceLoader} mechanism. The default implementation gets values from System properties and
  * expose them as default ones. It allows to customize your deployment with additional logic.
+ *
+ * System properties (the default provider) are read live, so a value set with
+ * {@link System#setProperty(String, String)} is visible right away. Properties of all other
+ * providers are merged into an immutable index when the instance is created, so lookups do not
+ * touch their {@link Properties} objects. Providers that publish change events refresh the index
+ * on their own, listeners registered with {@link #addChangeListener(Consumer)} get the changed
+ * keys. Call {@link #refresh()} to pick up changes of providers that do not publish them.
+ *
+ * Typed getters (e.g. {@link #getLong(String)}) convert a value once, the converted value is
+ * memoized until the property changes.
+ *
+ * Use {@link #shared()} to get the instance shared by all Knot.x components, so providers are
+ * loaded only once. Other instances should be closed when not used anymore, closing the instance
+ * closes its providers.
  */
-public class SystemProperties {
+public class SystemProperties implements AutoCloseable {
 
-  private final LinkedList<Properties> stores;
+  private final LinkedList<SystemPropertyProvider> providers;
+  private final SystemPropertyProvider liveProvider;
+  private final List<Consumer<Set<String>>> listeners = new CopyOnWriteArrayList<>();
+  private volatile Index index;
 
   public SystemProperties() {
-    this.stores = new LinkedList<>();
-    ServiceLoader<SystemPropertyProvider> allProviders = ServiceLoader
-        .load(SystemPropertyProvider.class);
-    allProviders.forEach(provider -> {
+    this(ServiceLoader.load(SystemPropertyProvider.class));
+  }
+
+  SystemProperties(Iterable<SystemPropertyProvider> allProviders) {
+    this.providers = new LinkedList<>();
+    SystemPropertyProvider defaultProvider = null;
+    for (SystemPropertyProvider provider : allProviders) {
       if (provider.getClass() == DefaultSystemPropertyProvider.class) {
-        stores.addFirst(provider.getProperties());
+        defaultProvider = provider;
       } else {
-        stores.addLast(provider.getProperties());
+        providers.addLast(provider);
       }
-    });
+    }
+    this.liveProvider = defaultProvider;
+    this.index = new Index(readProperties());
+    providers.forEach(provider -> provider.setChangeListener(this::refresh));
+  }
+
+  /**
+   * @return system properties shared by all Knot.x components
+   */
+  public static SystemProperties shared() {
+    return SharedHolder.INSTANCE;
   }
 
   /**
@@ -52,10 +96,193 @@ public class SystemProperties {
    * @return property value
    */
   public Optional<String> getProperty(String key) {
-    return stores.stream()
-        .map(properties -> properties.getProperty(key))
-        .filter(Objects::nonNull)
-        .findFirst();
+    return Optional.ofNullable(value(index, key));
+  }
+
+  /**
+   * @param key - property key
+   * @return property value as an int
+   * @throws io.knotx.launcher.BadKnotxConfigurationException when the value is not an int
+   */
+  public Optional<Integer> getInt(String key) {
+    return getConverted(key, "int", PropertyConverters::toInt);
+  }
+
+  /**
+   * @param key - property key
+   * @return property value as a long
+   * @throws io.knotx.launcher.BadKnotxConfigurationException when the value is not a long
+   */
+  public Optional<Long> getLong(String key) {
+    return getConverted(key, "long", PropertyConverters::toLong);
+  }
+
+  /**
+   * @param key - property key
+   * @return property value as a double
+   * @throws io.knotx.launcher.BadKnotxConfigurationException when the value is not a double
+   */
+  public Optional<Double> getDouble(String key) {
+    return getConverted(key, "double", PropertyConverters::toDouble);
+  }
+
+  /**
+   * @param key - property key
+   * @return property value as a boolean, only <pre>true</pre> and <pre>false</pre> (ignoring
+   * case) are accepted
+   * @throws io.knotx.launcher.BadKnotxConfigurationException when the value is not a boolean
+   */
+  public Optional<Boolean> getBoolean(String key) {
+    return getConverted(key, "boolean", PropertyConverters::toBoolean);
+  }
+
+  /**
+   * @param key - property key
+   * @return property value as a duration in the HOCON format, e.g. <pre>10s</pre>, a number
+   * without a unit is in milliseconds
+   * @throws io.knotx.launcher.BadKnotxConfigurationException when the value is not a duration
+   */
+  public Optional<Duration> getDuration(String key) {
+    return getConverted(key, "duration", PropertyConverters::toDuration);
+  }
+
+  /**
+   * @param key - property key
+   * @return property value as a size in bytes in the HOCON format, e.g. <pre>512KiB</pre>, a
+   * number without a unit is in bytes
+   * @throws io.knotx.launcher.BadKnotxConfigurationException when the value is not a size
+   */
+  public Optional<Long> getBytes(String key) {
+    return getConverted(key, "size", PropertyConverters::toBytes);
+  }
+
+  /**
+   * Gets property value converted to the most specific type: a boolean, an int, a long, a double
+   * or a string. Blank values are treated as absent.
+   *
+   * @param key - property key
+   * @return typed property value
+   */
+  public Optional<Object> getTypedProperty(String key) {
+    return getConverted(key, "typed",
+        (propertyKey, value) -> StringUtils.isBlank(value) ? null
+            : PropertyConverters.toTypedValue(value));
+  }
+
+  /**
+   * Rebuilds the lookup index from the current properties of all providers except the live system
+   * properties. When any property was added, removed or changed, the change listeners are
+   * notified.
+   */
+  public void refresh() {
+    Set<String> changedKeys;
+    synchronized (this) {
+      Index previous = index;
+      Map<String, String> values = readProperties();
+      changedKeys = changedKeys(previous.values, values);
+      index = previous.next(values, changedKeys);
+    }
+    if (!changedKeys.isEmpty()) {
+      listeners.forEach(listener -> listener.accept(changedKeys));
+    }
+  }
+
+  /**
+   * Registers a listener notified with keys of changed properties. It is called on the thread
+   * that refreshed the properties.
+   *
+   * @param listener - changed keys consumer
+   */
+  public void addChangeListener(Consumer<Set<String>> listener) {
+    listeners.add(listener);
+  }
+
+  public void removeChangeListener(Consumer<Set<String>> listener) {
+    listeners.remove(listener);
+  }
+
+  @Override
+  public void close() {
+    listeners.clear();
+    if (liveProvider != null) {
+      liveProvider.close();
+    }
+    providers.forEach(SystemPropertyProvider::close);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Optional<T> getConverted(String key, String type,
+      BiFunction<String, String, T> converter) {
+    Index current = index;
+    String value = value(current, key);
+    if (value == null) {
+      return Optional.empty();
+    }
+    // a live value may change without a refresh, so the memoized value is checked against it
+    Memo memo = current.converted.compute(type + ':' + key,
+        (memoKey, memoized) -> memoized != null && memoized.value.equals(value) ? memoized
+            : new Memo(value, Optional.ofNullable(converter.apply(key, value))));
+    return (Optional<T>) memo.converted;
+  }
+
+  private String value(Index current, String key) {
+    String live = liveProvider != null ? liveProvider.getProperties().getProperty(key) : null;
+    return live != null ? live : current.values.get(key);
+  }
+
+  private Map<String, String> readProperties() {
+    Map<String, String> merged = new HashMap<>();
+    providers.forEach(provider -> {
+      Properties properties = provider.getProperties();
+      properties.stringPropertyNames()
+          .forEach(key -> merged.putIfAbsent(key, properties.getProperty(key)));
+    });
+    return ImmutableMap.copyOf(merged);
+  }
+
+  private static Set<String> changedKeys(Map<String, String> previous,
+      Map<String, String> current) {
+    return ImmutableSet.copyOf(Sets.union(previous.keySet(), current.keySet()).stream()
+        .filter(key -> !Objects.equals(previous.get(key), current.get(key)))
+        .iterator());
+  }
+
+  private static final class Index {
+
+    private final Map<String, String> values;
+    private final ConcurrentMap<String, Memo> converted;
+
+    private Index(Map<String, String> values) {
+      this(values, new ConcurrentHashMap<>());
+    }
+
+    private Index(Map<String, String> values, ConcurrentMap<String, Memo> converted) {
+      this.values = values;
+      this.converted = converted;
+    }
+
+    private Index next(Map<String, String> newValues, Set<String> changedKeys) {
+      ConcurrentMap<String, Memo> stillValid = new ConcurrentHashMap<>(converted);
+      stillValid.keySet().removeIf(
+          memoKey -> changedKeys.contains(memoKey.substring(memoKey.indexOf(':') + 1)));
+      return new Index(newValues, stillValid);
+    }
+  }
+
+  private static final class Memo {
+
+    private final String value;
+    private final Optional<?> converted;
+
+    private Memo(String value, Optional<?> converted) {
+      this.value = value;
+      this.converted = converted;
+    }
+  }
+
+  private static final class SharedHolder {
+
+    private static final SystemProperties INSTANCE = new SystemProperties();
   }
 
 }
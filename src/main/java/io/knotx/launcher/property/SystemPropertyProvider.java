@@ -22,7 +22,7 @@ import java.util.Properties;
  * io.knotx.launcher.KnotxStarterVerticle} deployment. See {@link SystemProperties} for more
  * details.
  */
-public interface SystemPropertyProvider {
+public interface SystemPropertyProvider extends AutoCloseable {
 
   /**
    * Gets properties.
@@ -31,4 +31,24 @@ public interface SystemPropertyProvider {
    */
   Properties getProperties();
 
+  /**
+   * Sets the listener the provider calls whenever its properties changed, e.g. when a backing
+   * file was modified. After the call, {@link #getProperties()} must return the new properties.
+   * Providers with static properties do not need to implement it.
+   *
+   * @param listener - listener refreshing {@link SystemProperties}
+   */
+  default void setChangeListener(Runnable listener) {
+    // properties never change
+  }
+
+  /**
+   * Releases resources of the provider, e.g. a thread watching a backing file. Called when the
+   * {@link SystemProperties} using the provider is closed.
+   */
+  @Override
+  default void close() {
+    // nothing to release
+  }
+
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.launcher.ModuleDescriptor.DeploymentState;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class BootTimelineTest {
+
+  @Test
+  @DisplayName("Expect phases and modules recorded until the start completes exported as JSON.")
+  void toJson(Vertx vertx) {
+    // given
+    BootTimeline timeline = BootTimeline.start(vertx);
+    ModuleDescriptor module = ModuleDescriptor.fromConfig("server", "test:server",
+        new JsonObject())
+        .setState(DeploymentState.SUCCESS)
+        .setDeployDurationNanos(5L);
+
+    // when
+    timeline.recordPhase("conf-parse", System.nanoTime(),
+        new JsonObject().put("path", "application.conf"));
+    timeline.recordModule(module, System.nanoTime());
+    timeline.complete();
+    timeline.recordPhase("conf-parse", System.nanoTime());
+    JsonObject json = timeline.toJson();
+
+    // then
+    assertTrue(json.getBoolean("completed"));
+    assertTrue(json.getLong("jvmUptimeMillis") > 0);
+    JsonArray phases = json.getJsonArray("phases");
+    assertEquals(1, phases.size());
+    assertEquals("conf-parse", phases.getJsonObject(0).getString("name"));
+    assertEquals("application.conf",
+        phases.getJsonObject(0).getJsonObject("details").getString("path"));
+    assertTrue(phases.getJsonObject(0).getLong("startNanos") >= 0);
+    JsonArray modules = json.getJsonArray("modules");
+    assertEquals(1, modules.size());
+    assertEquals("server", modules.getJsonObject(0).getString("alias"));
+    assertEquals("test:server", modules.getJsonObject(0).getString("name"));
+    assertEquals("SUCCESS", modules.getJsonObject(0).getString("state"));
+    assertEquals(5L, modules.getJsonObject(0).getLong("durationNanos"));
+  }
+
+  @Test
+  @DisplayName("Expect each starter starting a new timeline.")
+  void timelinePerStarter(Vertx vertx) {
+    // given
+    BootTimeline first = BootTimeline.start(vertx);
+    first.complete();
+
+    // when
+    BootTimeline second = BootTimeline.start(vertx);
+
+    // then
+    assertNotSame(first, second);
+    assertSame(second, BootTimeline.get(vertx));
+    assertFalse(second.toJson().getBoolean("completed"));
+  }
+
+  @Test
+  @DisplayName("Expect the prepared timeline with phases preceding the start used by the starter.")
+  void preparedTimeline(Vertx vertx) {
+    // given
+    long start = System.nanoTime();
+    BootTimeline prepared = BootTimeline.prepare(vertx, start);
+    prepared.recordPhase("bootstrap-read", start, 10L, new JsonObject());
+
+    // when
+    BootTimeline timeline = BootTimeline.start(vertx);
+
+    // then
+    assertSame(prepared, timeline);
+    JsonObject phase = timeline.toJson().getJsonArray("phases").getJsonObject(0);
+    assertEquals("bootstrap-read", phase.getString("name"));
+    assertEquals(0L, phase.getLong("startNanos"));
+    assertEquals(10L, phase.getLong("durationNanos"));
+    assertNotSame(timeline, BootTimeline.start(vertx));
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import static io.knotx.launcher.util.DeploymentOptionsFactory.fromConfFile;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.reactivex.core.Vertx;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+@ExtendWith(VertxExtension.class)
+class ConfigSnapshotTest {
+
+  private static final JsonObject RETRIEVER_OPTIONS = new JsonObject()
+      .put("stores", new JsonArray().add(new JsonObject().put("type", "file")));
+  private static final JsonObject CONFIGURATION = new JsonObject().put("key", "value");
+
+  @Test
+  @DisplayName("Expect the snapshot used when the fingerprint of its inputs matches.")
+  void fingerprintMatches(VertxTestContext testContext, Vertx vertx, @TempDir Path folder)
+      throws IOException {
+    // given
+    Path input = write(folder.resolve("application.conf"), "key = value");
+    ConfigSnapshot snapshot = snapshot(vertx, folder);
+
+    // when
+    snapshot.save(CONFIGURATION, Collections.singletonList(input))
+        .andThen(snapshot.load().toSingle())
+        .subscribe(
+            // then
+            configuration -> testContext.verify(() -> {
+              assertEquals(CONFIGURATION, configuration);
+              testContext.completeNow();
+            }),
+            testContext::failNow
+        );
+  }
+
+  @Test
+  @DisplayName("Expect the snapshot ignored when one of its inputs changed.")
+  void inputChanged(VertxTestContext testContext, Vertx vertx, @TempDir Path folder)
+      throws IOException {
+    // given
+    Path input = write(folder.resolve("application.conf"), "key = value");
+    ConfigSnapshot snapshot = snapshot(vertx, folder);
+
+    // when
+    snapshot.save(CONFIGURATION, Collections.singletonList(input))
+        .doOnComplete(() -> write(input, "key = changed value"))
+        .andThen(snapshot.load())
+        .subscribe(
+            configuration -> testContext.failNow(
+                new AssertionError("Outdated snapshot loaded: " + configuration)),
+            testContext::failNow,
+            // then
+            testContext::completeNow
+        );
+  }
+
+  @Test
+  @DisplayName("Expect the snapshot ignored when an input changed within the same millisecond.")
+  void subMillisecondChange(VertxTestContext testContext, Vertx vertx, @TempDir Path folder)
+      throws IOException {
+    // given
+    Path input = write(folder.resolve("application.conf"), "key = 1");
+    long modified = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+    FileTime changed = FileTime.from(modified + 500_000L, TimeUnit.NANOSECONDS);
+    Files.setLastModifiedTime(input, changed);
+    assumeTrue(Files.getLastModifiedTime(input).equals(changed),
+        "The file system does not support sub-millisecond modification times");
+    Files.setLastModifiedTime(input, FileTime.from(modified, TimeUnit.NANOSECONDS));
+    ConfigSnapshot snapshot = snapshot(vertx, folder);
+
+    // when
+    snapshot.save(CONFIGURATION, Collections.singletonList(input))
+        .doOnComplete(() -> Files.setLastModifiedTime(write(input, "key = 2"), changed))
+        .andThen(snapshot.load())
+        .subscribe(
+            configuration -> testContext.failNow(
+                new AssertionError("Outdated snapshot loaded: " + configuration)),
+            testContext::failNow,
+            // then
+            testContext::completeNow
+        );
+  }
+
+  @Test
+  @DisplayName("Expect the snapshot ignored when the retriever options changed.")
+  void optionsChanged(VertxTestContext testContext, Vertx vertx, @TempDir Path folder)
+      throws IOException {
+    // given
+    Path input = write(folder.resolve("application.conf"), "key = value");
+    Path snapshotFile = folder.resolve("snapshot.json");
+    ConfigSnapshot snapshot = new ConfigSnapshot(vertx, snapshotFile.toString(),
+        RETRIEVER_OPTIONS);
+    ConfigSnapshot changedOptions = new ConfigSnapshot(vertx, snapshotFile.toString(),
+        RETRIEVER_OPTIONS.copy().put("scanPeriod", 100));
+
+    // when
+    snapshot.save(CONFIGURATION, Collections.singletonList(input))
+        .andThen(changedOptions.load())
+        .subscribe(
+            configuration -> testContext.failNow(
+                new AssertionError("Outdated snapshot loaded: " + configuration)),
+            testContext::failNow,
+            // then
+            testContext::completeNow
+        );
+  }
+
+  @Test
+  @DisplayName("Expect a partially written snapshot ignored.")
+  void partialSnapshot(VertxTestContext testContext, Vertx vertx, @TempDir Path folder)
+      throws IOException {
+    // given
+    write(folder.resolve("snapshot.json"), "{\"optionsHash\":\"abc\",\"configur");
+
+    // when
+    snapshot(vertx, folder).load()
+        .subscribe(
+            configuration -> testContext.failNow(
+                new AssertionError("Corrupt snapshot loaded: " + configuration)),
+            testContext::failNow,
+            // then
+            testContext::completeNow
+        );
+  }
+
+  @Test
+  @DisplayName("Expect modules deployed from the stores when the snapshot is corrupt.")
+  void startWithCorruptSnapshot(VertxTestContext testContext, Vertx vertx,
+      @TempDir Path folder) throws IOException {
+    // given
+    Path snapshotFile = write(folder.resolve("snapshot.json"), "not a JSON");
+    Path conf = write(folder.resolve("application.conf"),
+        "modules.server = \"io.knotx.launcher.ConfigurableVerticle\"\n"
+            + "config.server.options.config.name = fromStores");
+    ModuleEvents events = ModuleEvents.record(vertx);
+
+    // when
+    vertx.rxDeployVerticle(KnotxStarterVerticle.class.getName(), fromConfFile(conf,
+        new JsonObject()
+            .put("configSnapshot", true)
+            .put("configSnapshotFile", snapshotFile.toString())))
+        .ignoreElement()
+        // then
+        .andThen(events.await(() -> events.running("fromStores") == 1, 5000))
+        .subscribe(testContext::completeNow, testContext::failNow);
+  }
+
+  @Test
+  @DisplayName("Expect the snapshot readable and writable by its owner only.")
+  void ownerOnly(VertxTestContext testContext, Vertx vertx, @TempDir Path folder)
+      throws IOException {
+    // given
+    Path input = write(folder.resolve("application.conf"), "key = value");
+    ConfigSnapshot snapshot = snapshot(vertx, folder);
+
+    // when
+    snapshot.save(CONFIGURATION, Collections.singletonList(input))
+        .subscribe(
+            // then
+            () -> testContext.verify(() -> {
+              if (Files.getFileStore(folder).supportsFileAttributeView("posix")) {
+                assertEquals("rw-------", PosixFilePermissions
+                    .toString(Files.getPosixFilePermissions(snapshot.getSnapshotFile())));
+              }
+              assertTrue(Files.isRegularFile(snapshot.getSnapshotFile()));
+              testContext.completeNow();
+            }),
+            testContext::failNow
+        );
+  }
+
+  private static ConfigSnapshot snapshot(Vertx vertx, Path folder) {
+    return new ConfigSnapshot(vertx, folder.resolve("snapshot.json").toString(),
+        RETRIEVER_OPTIONS);
+  }
+
+  private static Path write(Path file, String content) throws IOException {
+    return Files.write(file, Arrays.asList(content.split("\n")), StandardCharsets.UTF_8);
+  }
+}
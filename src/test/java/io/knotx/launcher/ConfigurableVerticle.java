@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+
+/**
+ * Test module driven by its configuration. It publishes <pre>start</pre> and <pre>stop</pre>
+ * events to {@link #EVENTS_ADDRESS} and supports:
+ * <ul>
+ * <li><pre>name</pre> - name reported in events and replies</li>
+ * <li><pre>startDelay</pre> - time in milliseconds the start takes</li>
+ * <li><pre>failures</pre> - number of first starts (per name) that fail</li>
+ * <li><pre>address</pre> - address the module replies on with its name</li>
+ * </ul>
+ * It also publishes the <pre>drain</pre> event when it gets the drain notice of the starter.
+ */
+public class ConfigurableVerticle extends AbstractVerticle {
+
+  static final String EVENTS_ADDRESS = "test.module.events";
+
+  private static final String ATTEMPTS_MAP = "test.module.attempts";
+
+  @Override
+  public void start(Promise<Void> startPromise) {
+    JsonObject config = config();
+    String name = config.getString("name", "module");
+    LocalMap<String, Integer> attempts = vertx.sharedData().getLocalMap(ATTEMPTS_MAP);
+    int attempt = attempts.merge(name, 1, Integer::sum);
+    vertx.setTimer(Math.max(1L, config.getLong("startDelay", 0L)), timerId -> {
+      if (attempt <= config.getInteger("failures", 0)) {
+        publish("fail", name);
+        startPromise.fail("Start " + attempt + " of " + name + " failed");
+        return;
+      }
+      String drainAddress = config.getString(KnotxStarterVerticle.DRAIN_ADDRESS_KEY);
+      if (drainAddress != null) {
+        vertx.eventBus().consumer(drainAddress, message -> publish("drain", name));
+      }
+      String address = config.getString("address");
+      if (address != null) {
+        vertx.eventBus().consumer(address, message -> message.reply(name));
+      }
+      publish("start", name);
+      startPromise.complete();
+    });
+  }
+
+  @Override
+  public void stop() {
+    publish("stop", config().getString("name", "module"));
+  }
+
+  private void publish(String event, String name) {
+    vertx.eventBus().publish(EVENTS_ADDRESS, new JsonObject()
+        .put("event", event)
+        .put("name", name)
+        .put("deploymentId", deploymentID()));
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import static io.knotx.launcher.util.DeploymentOptionsFactory.fromConfFile;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.reactivex.core.Vertx;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+@ExtendWith(VertxExtension.class)
+class DeployTimeoutAndRetriesTest {
+
+  @Test
+  @DisplayName("Expect a slow module failed after the timeout and its late deployment undeployed.")
+  void timeout(VertxTestContext testContext, Vertx vertx, @TempDir Path folder)
+      throws IOException {
+    // given
+    Path conf = writeConf(folder, "slow", "required = false, deployTimeout = 100",
+        "startDelay = 500");
+    ModuleEvents events = ModuleEvents.record(vertx);
+    long start = System.currentTimeMillis();
+
+    // when
+    vertx.rxDeployVerticle(KnotxStarterVerticle.class.getName(),
+        fromConfFile(conf, new JsonObject()))
+        .doOnSuccess(id -> testContext.verify(() -> {
+          // then
+          assertTrue(System.currentTimeMillis() - start < 500,
+              "Start should not wait for the slow module");
+          assertEquals(0, events.count("start", "slow"));
+        }))
+        .ignoreElement()
+        .andThen(events.await(() -> events.count("start", "slow") == 1
+            && events.count("stop", "slow") == 1, 5000))
+        .subscribe(testContext::completeNow, testContext::failNow);
+  }
+
+  @Test
+  @DisplayName("Expect a failing module retried with backoff until it starts.")
+  void retriesWithBackoff(VertxTestContext testContext, Vertx vertx, @TempDir Path folder)
+      throws IOException {
+    // given
+    Path conf = writeConf(folder, "flaky", "retries = 2, retryBackoff = 100", "failures = 2");
+    ModuleEvents events = ModuleEvents.record(vertx);
+    long start = System.currentTimeMillis();
+
+    // when
+    vertx.rxDeployVerticle(KnotxStarterVerticle.class.getName(),
+        fromConfFile(conf, new JsonObject()))
+        .ignoreElement()
+        .andThen(events.await(() -> events.running("flaky") == 1, 5000))
+        .subscribe(() -> testContext.verify(() -> {
+          // then
+          assertEquals(2, events.count("fail", "flaky"));
+          // backoff of 100 ms before the first retry and 200 ms before the second one
+          assertTrue(System.currentTimeMillis() - start >= 300);
+          testContext.completeNow();
+        }), testContext::failNow);
+  }
+
+  @Test
+  @DisplayName("Expect the start failed when a required module fails all attempts.")
+  void retriesExhausted(VertxTestContext testContext, Vertx vertx, @TempDir Path folder)
+      throws IOException {
+    // given
+    Path conf = writeConf(folder, "broken", "retries = 2, retryBackoff = 10", "failures = 10");
+    ModuleEvents events = ModuleEvents.record(vertx);
+
+    // when
+    vertx.rxDeployVerticle(KnotxStarterVerticle.class.getName(),
+        fromConfFile(conf, new JsonObject()))
+        .subscribe(
+            id -> testContext.failNow(new AssertionError("The start should fail")),
+            // then
+            error -> events.await(() -> events.count("fail", "broken") == 3, 5000)
+                .subscribe(testContext::completeNow, testContext::failNow));
+  }
+
+  private static Path writeConf(Path folder, String name, String options, String config)
+      throws IOException {
+    return Files.write(folder.resolve("application.conf"), Collections.singletonList(
+        "modules." + name + " = \"io.knotx.launcher.ConfigurableVerticle\"\n"
+            + "config." + name + ".options { " + options + " }\n"
+            + "config." + name + ".options.config { name = " + name + ", " + config + " }"));
+  }
+}
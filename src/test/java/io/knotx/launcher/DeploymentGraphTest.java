@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.ImmutableSet;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DeploymentGraphTest {
+
+  @Test
+  @DisplayName("Expect independent modules deployed in one level.")
+  void independentModules() {
+    // given
+    DeploymentGraph graph = new DeploymentGraph(Arrays.asList(
+        module("b"), module("a"), module("c")));
+
+    // then
+    assertEquals(Arrays.asList(Arrays.asList("a", "b", "c")), aliases(graph.getLevels()));
+  }
+
+  @Test
+  @DisplayName("Expect dependencies deployed in earlier levels.")
+  void dependentModules() {
+    // given
+    DeploymentGraph graph = new DeploymentGraph(Arrays.asList(
+        module("server", "handler", "consumer"),
+        module("handler", "consumer"),
+        module("consumer"),
+        module("other")));
+
+    // then
+    assertEquals(Arrays.asList(
+        Arrays.asList("consumer", "other"),
+        Arrays.asList("handler"),
+        Arrays.asList("server")), aliases(graph.getLevels()));
+  }
+
+  @Test
+  @DisplayName("Expect levels limited to given aliases.")
+  void limitedLevels() {
+    // given
+    DeploymentGraph graph = new DeploymentGraph(Arrays.asList(
+        module("server", "consumer"),
+        module("consumer"),
+        module("other")));
+
+    // then
+    assertEquals(Arrays.asList(Arrays.asList("server")),
+        aliases(graph.getLevels(ImmutableSet.of("server"))));
+  }
+
+  @Test
+  @DisplayName("Expect cyclic dependencies rejected.")
+  void cyclicDependencies() {
+    assertThrows(BadKnotxConfigurationException.class, () -> new DeploymentGraph(Arrays.asList(
+        module("a", "c"), module("b", "a"), module("c", "b"))));
+  }
+
+  @Test
+  @DisplayName("Expect dependency on not defined module rejected.")
+  void unknownDependency() {
+    assertThrows(BadKnotxConfigurationException.class,
+        () -> new DeploymentGraph(Arrays.asList(module("a", "missing"))));
+  }
+
+  private static ModuleDescriptor module(String alias, String... dependsOn) {
+    JsonObject config = new JsonObject()
+        .put("config", new JsonObject()
+            .put(alias, new JsonObject()
+                .put("options", new JsonObject()
+                    .put("dependsOn", new JsonArray(Arrays.asList(dependsOn))))));
+    return ModuleDescriptor.fromConfig(alias, "test:" + alias, config);
+  }
+
+  private static List<List<String>> aliases(List<List<ModuleDescriptor>> levels) {
+    return levels.stream()
+        .map(level -> level.stream()
+            .map(ModuleDescriptor::getAlias)
+            .collect(Collectors.toList()))
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import static io.knotx.launcher.util.DeploymentOptionsFactory.fromConfFile;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.reactivex.Completable;
+import io.reactivex.Single;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.test.fakecluster.FakeClusterManager;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+@ExtendWith(VertxExtension.class)
+class GracefulShutdownTest {
+
+  @AfterEach
+  void tearDown() {
+    FakeClusterManager.reset();
+  }
+
+  @Test
+  @DisplayName("Expect modules undeployed in the reverse dependency order.")
+  void reverseDependencyOrder(VertxTestContext testContext, Vertx vertx, @TempDir Path folder)
+      throws IOException {
+    // given
+    Path conf = Files.write(folder.resolve("application.conf"), Arrays.asList(
+        "modules { repository = \"io.knotx.launcher.ConfigurableVerticle\", "
+            + "handler = \"io.knotx.launcher.ConfigurableVerticle\", "
+            + "server = \"io.knotx.launcher.ConfigurableVerticle\" }",
+        "config.repository.options.config.name = repository",
+        "config.handler.options { dependsOn = [ repository ], config.name = handler }",
+        "config.server.options { dependsOn = [ handler ], drainPeriod = 50, "
+            + "config.name = server }"));
+    ModuleEvents events = ModuleEvents.record(vertx);
+
+    // when
+    vertx.rxDeployVerticle(KnotxStarterVerticle.class.getName(),
+        fromConfFile(conf, new JsonObject()))
+        .flatMap(id -> vertx.eventBus().<JsonObject>rxRequest(
+            KnotxStarterVerticle.shutdownAddress(id), null))
+        .flatMapCompletable(report -> events.await(() -> events.running() == 0, 5000)
+            .doOnComplete(() -> testContext.verify(() -> {
+              // then
+              assertEquals(Arrays.asList("repository", "handler", "server"),
+                  events.names("start"));
+              assertEquals(Arrays.asList("server", "handler", "repository"),
+                  events.names("stop"));
+              assertEquals(3, report.body().getJsonArray("steps").size());
+              assertTrue(report.body().getJsonArray("steps").getJsonObject(0)
+                  .getLong("drainMillis") >= 50);
+            })))
+        .subscribe(testContext::completeNow, testContext::failNow);
+  }
+
+  @Test
+  @DisplayName("Expect the shutdown bounded by the shutdown timeout.")
+  void shutdownTimeout(VertxTestContext testContext, Vertx vertx, @TempDir Path folder)
+      throws IOException {
+    // given
+    Path conf = Files.write(folder.resolve("application.conf"), Arrays.asList(
+        "modules.server = \"io.knotx.launcher.ConfigurableVerticle\"",
+        "config.server.options { drainPeriod = 10000, config.name = server }"));
+    ModuleEvents events = ModuleEvents.record(vertx);
+
+    // when
+    vertx.rxDeployVerticle(KnotxStarterVerticle.class.getName(),
+        fromConfFile(conf, new JsonObject().put("shutdownTimeout", 200)))
+        .flatMap(id -> vertx.eventBus().<JsonObject>rxRequest(
+            KnotxStarterVerticle.shutdownAddress(id), null))
+        .subscribe(
+            report -> testContext.verify(() -> {
+              // then
+              long duration = report.body().getLong("durationMillis");
+              assertTrue(duration >= 200 && duration < 2000, "Shutdown took " + duration);
+              // the module is left to Vert.x
+              assertEquals(1, events.running("server"));
+              testContext.completeNow();
+            }),
+            testContext::failNow
+        );
+  }
+
+  @Test
+  @DisplayName("Expect the shutdown waiting for a running re-deployment.")
+  void shutdownAfterRedeploy(VertxTestContext testContext, Vertx vertx, @TempDir Path folder) {
+    // given
+    Path conf = writeServerConf(folder.resolve("application.conf"), "first", 0);
+    ModuleEvents events = ModuleEvents.record(vertx);
+
+    // when
+    vertx.rxDeployVerticle(KnotxStarterVerticle.class.getName(),
+        fromConfFile(conf, new JsonObject()))
+        .flatMap(id -> {
+          writeServerConf(conf, "second-generation", 500);
+          // the old module is undeployed, the new one is starting
+          return events.await(() -> events.count("stop", "first") == 1, 5000)
+              .andThen(vertx.eventBus().<JsonObject>rxRequest(
+                  KnotxStarterVerticle.shutdownAddress(id), null));
+        })
+        .flatMapCompletable(report -> events.await(() -> events.running() == 0, 5000)
+            .doOnComplete(() -> testContext.verify(() -> {
+              // then
+              assertEquals(Arrays.asList("first", "second-generation"), events.names("start"));
+              assertEquals(Arrays.asList("first", "second-generation"), events.names("stop"));
+              assertEquals(1, report.body().getJsonArray("steps").size());
+            })))
+        .subscribe(testContext::completeNow, testContext::failNow);
+  }
+
+  @Test
+  @DisplayName("Expect the drain notice delivered only to modules of the stopping cluster node.")
+  void drainNoticeScopedToNode(VertxTestContext testContext, @TempDir Path folder)
+      throws IOException {
+    // given
+    Path firstConf = Files.write(folder.resolve("first.conf"), Arrays.asList(
+        "modules.server = \"io.knotx.launcher.ConfigurableVerticle\"",
+        "config.server.options { drainPeriod = 100, config.name = first }"));
+    Path secondConf = Files.write(folder.resolve("second.conf"), Arrays.asList(
+        "modules.server = \"io.knotx.launcher.ConfigurableVerticle\"",
+        "config.server.options { drainPeriod = 100, config.name = second }"));
+
+    Single.zip(clusteredVertx(), clusteredVertx(), (firstNode, secondNode) -> {
+      ModuleEvents events = ModuleEvents.record(secondNode);
+
+      // when
+      return firstNode.rxDeployVerticle(KnotxStarterVerticle.class.getName(),
+          fromConfFile(firstConf, new JsonObject()))
+          .flatMap(firstStarter -> secondNode.rxDeployVerticle(
+              KnotxStarterVerticle.class.getName(), fromConfFile(secondConf, new JsonObject()))
+              .flatMap(secondStarter -> firstNode.eventBus().<JsonObject>rxRequest(
+                  KnotxStarterVerticle.shutdownAddress(firstStarter), null)))
+          .ignoreElement()
+          .andThen(events.await(() -> events.count("stop", "first") == 1, 5000))
+          .doOnComplete(() -> testContext.verify(() -> {
+            // then
+            assertEquals(1, events.count("drain", "first"));
+            assertEquals(0, events.count("drain", "second"));
+            assertEquals(1, events.running("second"));
+          }))
+          .doFinally(() -> Completable.mergeArray(firstNode.rxClose(), secondNode.rxClose())
+              .onErrorComplete()
+              .subscribe());
+    })
+        .flatMapCompletable(work -> work)
+        .subscribe(testContext::completeNow, testContext::failNow);
+  }
+
+  private static Single<Vertx> clusteredVertx() {
+    return Vertx.rxClusteredVertx(new VertxOptions().setClusterManager(new FakeClusterManager()));
+  }
+
+  private static Path writeServerConf(Path conf, String name, long startDelay) {
+    try {
+      return Files.write(conf, Arrays.asList(
+          "modules.server = \"io.knotx.launcher.ConfigurableVerticle\"",
+          "config.server.options.config { name = " + name + ", startDelay = " + startDelay
+              + " }"));
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
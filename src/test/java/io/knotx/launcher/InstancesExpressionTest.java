@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class InstancesExpressionTest {
+
+  @ParameterizedTest(name = "{0} with {1} cores is {2}")
+  @CsvSource({
+      "cores, 8, 8",
+      "cores*2, 8, 16",
+      "cores * 1.5, 3, 4",
+      "cores/2, 3, 1",
+      "cores-1, 4, 3",
+      "cores-1, 1, 1",
+      "cores+2, 4, 6"
+  })
+  @DisplayName("Expect expression resolved from the number of cores.")
+  void resolve(String expression, int cores, int expected) {
+    assertEquals(expected, InstancesExpression.resolve(expression, cores));
+  }
+
+  @Test
+  @DisplayName("Expect unsupported expression rejected.")
+  void unsupportedExpression() {
+    assertThrows(BadKnotxConfigurationException.class,
+        () -> InstancesExpression.resolve("threads*2", 4));
+  }
+
+  @Test
+  @DisplayName("Expect resolved instances capped by min and max instances.")
+  void caps() {
+    // given
+    JsonObject options = new JsonObject()
+        .put("instances", "cores*2")
+        .put("minInstances", 4)
+        .put("maxInstances", 12);
+
+    // then
+    assertEquals(4, ModuleDescriptor.resolveInstances("server", options, 1));
+    assertEquals(10, ModuleDescriptor.resolveInstances("server", options, 5));
+    assertEquals(12, ModuleDescriptor.resolveInstances("server", options, 32));
+  }
+
+  @Test
+  @DisplayName("Expect numeric instances kept.")
+  void numericInstances() {
+    assertEquals(3, ModuleDescriptor
+        .resolveInstances("server", new JsonObject().put("instances", 3), 32));
+  }
+}
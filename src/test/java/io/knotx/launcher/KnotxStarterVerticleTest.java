@@ -17,19 +17,28 @@ package io.knotx.launcher;
 
 import static io.knotx.launcher.util.DeploymentOptionsFactory.fromBootstrapFile;
 import static io.knotx.launcher.util.DeploymentOptionsFactory.fromBootstrapTemplate;
+import static io.knotx.launcher.util.DeploymentOptionsFactory.fromConfFile;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.knotx.launcher.TestVerticlesFactory.VerificationContext;
 import io.knotx.launcher.exception.ModulesUnsupportedSyntaxException;
+import io.knotx.launcher.metrics.Metrics;
 import io.vertx.core.DeploymentOptions;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.json.JsonObject;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
 import io.vertx.reactivex.core.Vertx;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 
 @ExtendWith(VertxExtension.class)
 class KnotxStarterVerticleTest {
@@ -147,4 +156,165 @@ class KnotxStarterVerticleTest {
         );
   }
 
-}
\ No newline at end of file
+
+  @Test
+  @DisplayName("Scale a running module up and back down without re-deploying it.")
+  void scaleModule(VertxTestContext testContext, Vertx vertx) {
+    // given
+    DeploymentOptions options = fromBootstrapTemplate(BOOTSTRAP_TEMPLATE, "simple.conf");
+    TestVerticlesFactory factory = TestVerticlesFactory
+        .allVerticlesStart(VerificationContext.instance());
+    vertx.registerVerticleFactory(factory);
+
+    // when
+    vertx.rxDeployVerticle(KnotxStarterVerticle.class.getName(), options)
+        .flatMap(id -> vertx.eventBus().<JsonObject>rxRequest(KnotxStarterVerticle.SCALE_ADDRESS,
+            new JsonObject().put("alias", "myModule").put("instances", 3)))
+        .doOnSuccess(reply -> testContext.verify(() -> {
+          assertEquals(3, reply.body().getInteger("instances").intValue());
+          assertEquals(3, factory.getDeployedVerticlesCount());
+        }))
+        .flatMap(scaled -> vertx.eventBus().<JsonObject>rxRequest(
+            KnotxStarterVerticle.SCALE_ADDRESS,
+            new JsonObject().put("alias", "myModule").put("instances", 1)))
+        .subscribe(
+            // then
+            reply -> testContext.verify(() -> {
+              assertEquals(1, reply.body().getInteger("instances").intValue());
+              assertEquals(3, factory.getDeployedVerticlesCount());
+              testContext.completeNow();
+            }),
+            testContext::failNow
+        );
+  }
+
+  @Test
+  @DisplayName("Expect scaling below the configured instances rejected.")
+  void scaleModuleBelowConfiguredInstances(VertxTestContext testContext, Vertx vertx) {
+    // given
+    DeploymentOptions options = fromBootstrapTemplate(BOOTSTRAP_TEMPLATE, "simple.conf");
+    vertx.registerVerticleFactory(
+        TestVerticlesFactory.allVerticlesStart(VerificationContext.instance()));
+
+    // when
+    vertx.rxDeployVerticle(KnotxStarterVerticle.class.getName(), options)
+        .flatMap(id -> vertx.eventBus().<JsonObject>rxRequest(KnotxStarterVerticle.SCALE_ADDRESS,
+            new JsonObject().put("alias", "myModule").put("instances", 0)))
+        .subscribe(
+            // then
+            reply -> testContext.failNow(new RuntimeException("Scaling should be rejected")),
+            error -> testContext.verify(() -> {
+              assertTrue(error instanceof ReplyException);
+              testContext.completeNow();
+            })
+        );
+  }
+
+  @Test
+  @DisplayName("Deploy a lazy module on the first message sent to its address.")
+  void lazyModuleDeployedOnFirstMessage(VertxTestContext testContext, Vertx vertx) {
+    // given
+    DeploymentOptions options = fromBootstrapTemplate(BOOTSTRAP_TEMPLATE, "lazy.conf");
+    ModuleEvents events = ModuleEvents.record(vertx);
+
+    // when
+    vertx.rxDeployVerticle(KnotxStarterVerticle.class.getName(), options)
+        .doOnSuccess(id -> testContext.verify(
+            () -> assertEquals(0, events.count("start", "lazy"))))
+        .flatMap(id -> vertx.eventBus().<String>rxRequest("my.lazy.address", "ping"))
+        .subscribe(
+            // then
+            reply -> testContext.verify(() -> {
+              assertEquals("lazy", reply.body());
+              assertEquals(1, events.count("start", "lazy"));
+              testContext.completeNow();
+            }),
+            testContext::failNow
+        );
+  }
+
+  @Test
+  @DisplayName("Expect instances of an activated lazy module released once when it is shut down.")
+  void lazyModuleUndeployMetric(VertxTestContext testContext, Vertx vertx) {
+    // given
+    DeploymentOptions options = fromBootstrapTemplate(BOOTSTRAP_TEMPLATE, "lazy.conf");
+
+    // when
+    vertx.rxDeployVerticle(KnotxStarterVerticle.class.getName(), options)
+        .flatMap(id -> vertx.eventBus().<String>rxRequest("my.lazy.address", "ping")
+            .flatMap(reply -> vertx.eventBus().<JsonObject>rxRequest(
+                KnotxStarterVerticle.shutdownAddress(id), null)))
+        .subscribe(
+            // then
+            reply -> testContext.verify(() -> {
+              String metrics = Metrics.inMemory(vertx.getDelegate()).toPrometheusText();
+              assertTrue(metrics.contains("knotx_module_instances{alias=\"myModule\"} 0\n"));
+              assertTrue(metrics.contains(
+                  "knotx_module_undeploy_seconds_count{alias=\"myModule\"} 1\n"));
+              testContext.completeNow();
+            }),
+            testContext::failNow
+        );
+  }
+
+  @Test
+  @DisplayName("Expect an idle lazy module undeployed and deployed again on the next message.")
+  void lazyModuleUndeployedWhenIdle(VertxTestContext testContext, Vertx vertx) {
+    // given
+    DeploymentOptions options = fromBootstrapTemplate(BOOTSTRAP_TEMPLATE, "lazy-idle.conf");
+    ModuleEvents events = ModuleEvents.record(vertx);
+
+    // when
+    vertx.rxDeployVerticle(KnotxStarterVerticle.class.getName(), options)
+        .flatMap(id -> vertx.eventBus().<String>rxRequest("my.lazy.address", "ping"))
+        .ignoreElement()
+        .andThen(events.await(() -> events.count("stop", "lazy") == 1, 5000))
+        .andThen(vertx.eventBus().<String>rxRequest("my.lazy.address", "ping"))
+        .subscribe(
+            // then
+            reply -> testContext.verify(() -> {
+              assertEquals("lazy", reply.body());
+              assertEquals(2, events.count("start", "lazy"));
+              testContext.completeNow();
+            }),
+            testContext::failNow
+        );
+  }
+
+  @Test
+  @DisplayName("Expect scaling and a re-deployment running at the same time not leaking instances.")
+  void scaleDuringRedeploy(VertxTestContext testContext, Vertx vertx, @TempDir Path folder)
+      throws IOException {
+    // given
+    Path conf = folder.resolve("application.conf");
+    writeServerConf(conf, "first");
+    ModuleEvents events = ModuleEvents.record(vertx);
+
+    // when
+    vertx.rxDeployVerticle(KnotxStarterVerticle.class.getName(),
+        fromConfFile(conf, new JsonObject()))
+        .flatMap(id -> {
+          writeServerConf(conf, "second-generation");
+          return vertx.eventBus().<JsonObject>rxRequest(KnotxStarterVerticle.SCALE_ADDRESS,
+              new JsonObject().put("alias", "server").put("instances", 3));
+        })
+        .ignoreElement()
+        .andThen(events.await(() -> events.running("second-generation") > 0
+            && events.running("first") == 0, 5000))
+        .andThen(vertx.eventBus().<JsonObject>rxRequest(KnotxStarterVerticle.SCALE_ADDRESS,
+            new JsonObject().put("alias", "server").put("instances", 1)))
+        .ignoreElement()
+        .andThen(events.await(() -> events.running() == 1, 5000))
+        .subscribe(
+            // then
+            testContext::completeNow,
+            testContext::failNow
+        );
+  }
+
+  private static void writeServerConf(Path conf, String name) throws IOException {
+    Files.write(conf, Arrays.asList(
+        "modules.server = \"io.knotx.launcher.ConfigurableVerticle\"",
+        "config.server.options.config { name = " + name + ", startDelay = 100 }"));
+  }
+}
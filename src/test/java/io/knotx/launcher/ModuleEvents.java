@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.RxHelper;
+import io.vertx.reactivex.core.Vertx;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Records events published by {@link ConfigurableVerticle} instances.
+ */
+class ModuleEvents {
+
+  private static final long POLL_PERIOD = 20L;
+
+  private final List<JsonObject> events = new CopyOnWriteArrayList<>();
+  private final Vertx vertx;
+
+  private ModuleEvents(Vertx vertx) {
+    this.vertx = vertx;
+  }
+
+  static ModuleEvents record(Vertx vertx) {
+    ModuleEvents moduleEvents = new ModuleEvents(vertx);
+    vertx.eventBus().<JsonObject>consumer(ConfigurableVerticle.EVENTS_ADDRESS,
+        message -> moduleEvents.events.add(message.body()));
+    return moduleEvents;
+  }
+
+  /**
+   * @return names of modules that published the event, in the order of events
+   */
+  List<String> names(String event) {
+    return events.stream()
+        .filter(entry -> event.equals(entry.getString("event")))
+        .map(entry -> entry.getString("name"))
+        .collect(Collectors.toList());
+  }
+
+  int count(String event, String name) {
+    return (int) events.stream()
+        .filter(entry -> event.equals(entry.getString("event")))
+        .filter(entry -> name.equals(entry.getString("name")))
+        .count();
+  }
+
+  /**
+   * @return position of the first event of the module among all events, <pre>-1</pre> when not
+   * published
+   */
+  int indexOf(String event, String name) {
+    for (int i = 0; i < events.size(); i++) {
+      JsonObject entry = events.get(i);
+      if (event.equals(entry.getString("event")) && name.equals(entry.getString("name"))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @return number of running instances of the module with the given name
+   */
+  int running(String name) {
+    return count("start", name) - count("stop", name);
+  }
+
+  /**
+   * @return number of all running instances
+   */
+  int running() {
+    return names("start").size() - names("stop").size();
+  }
+
+  /**
+   * Completes when the condition is met, fails when it is not met within the timeout.
+   */
+  Completable await(BooleanSupplier condition, long timeoutMillis) {
+    return Observable.interval(POLL_PERIOD, TimeUnit.MILLISECONDS, RxHelper.scheduler(vertx))
+        .filter(tick -> condition.getAsBoolean())
+        .firstOrError()
+        .ignoreElement()
+        .timeout(timeoutMillis, TimeUnit.MILLISECONDS, RxHelper.scheduler(vertx),
+            Completable.error(new TimeoutException("Condition not met in " + timeoutMillis
+                + " ms, events: " + events)));
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.knotx.launcher.ModulesDiff.Change;
+import io.vertx.core.json.JsonObject;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ModulesDiffTest {
+
+  private static final Map<String, String> MODULES = ImmutableMap
+      .of("server", "io.knotx.Server", "repository", "io.knotx.Repository");
+
+  @Test
+  @DisplayName("Expect no changes when modules and their configuration are the same.")
+  void noChanges() {
+    // given
+    JsonObject config = config(2, "a");
+
+    // when
+    ModulesDiff diff = ModulesDiff.compute(MODULES, config, MODULES, config.copy());
+
+    // then
+    assertTrue(diff.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Expect added and removed aliases detected.")
+  void addedAndRemoved() {
+    // given
+    Map<String, String> current = ImmutableMap
+        .of("server", "io.knotx.Server", "gateway", "io.knotx.Gateway");
+
+    // when
+    ModulesDiff diff = ModulesDiff.compute(MODULES, config(1, "a"), current, config(1, "a"));
+
+    // then
+    assertEquals(ImmutableSet.of("gateway"), diff.getAdded());
+    assertEquals(ImmutableSet.of("repository"), diff.getRemoved());
+    assertEquals(ImmutableSet.of("repository", "gateway"), diff.getAffectedAliases());
+  }
+
+  @Test
+  @DisplayName("Expect options and config changes reported only for the modified alias.")
+  void changedOptionsAndConfig() {
+    // when
+    ModulesDiff diff = ModulesDiff.compute(MODULES, config(1, "a"), MODULES, config(2, "b"));
+
+    // then
+    assertEquals(ImmutableSet.of("server"), diff.getAffectedAliases());
+    assertEquals(ImmutableSet.of(Change.OPTIONS_CHANGED, Change.CONFIG_CHANGED),
+        diff.getChanges("server"));
+    assertTrue(diff.getChanges("repository").isEmpty());
+  }
+
+  @Test
+  @DisplayName("Expect verticle name change reported.")
+  void changedName() {
+    // given
+    Map<String, String> current = ImmutableMap
+        .of("server", "io.knotx.OtherServer", "repository", "io.knotx.Repository");
+
+    // when
+    ModulesDiff diff = ModulesDiff.compute(MODULES, config(1, "a"), current, config(1, "a"));
+
+    // then
+    assertEquals(ImmutableSet.of(Change.NAME_CHANGED), diff.getChanges("server"));
+  }
+
+  private JsonObject config(int serverInstances, String serverValue) {
+    return new JsonObject()
+        .put("config", new JsonObject()
+            .put("server", new JsonObject()
+                .put("options", new JsonObject()
+                    .put("instances", serverInstances)
+                    .put("config", new JsonObject().put("key", serverValue))))
+            .put("repository", new JsonObject()
+                .put("options", new JsonObject()
+                    .put("config", new JsonObject().put("key", "value")))));
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.launcher.ModuleDescriptor.DeploymentState;
+import io.vertx.core.json.JsonObject;
+import java.util.Arrays;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ProbeServerTest {
+
+  @Test
+  @DisplayName("Expect not ready when the instance is starting.")
+  void starting() {
+    // when
+    JsonObject status = ProbeServer.status(null, false, false);
+
+    // then
+    assertFalse(status.getBoolean("ready"));
+    assertFalse(status.getBoolean("started"));
+  }
+
+  @Test
+  @DisplayName("Expect ready when only optional modules failed.")
+  void optionalModuleFailed() {
+    // when
+    JsonObject status = ProbeServer.status(Arrays.asList(
+        module("server", true, DeploymentState.SUCCESS),
+        module("metrics", false, DeploymentState.FAILED)), false, false);
+
+    // then
+    assertTrue(status.getBoolean("ready"));
+    assertEquals(2, status.getJsonArray("modules").size());
+  }
+
+  @Test
+  @DisplayName("Expect not ready when a required module failed.")
+  void requiredModuleFailed() {
+    // when
+    JsonObject status = ProbeServer.status(Arrays.asList(
+        module("server", true, DeploymentState.FAILED)), false, false);
+
+    // then
+    assertFalse(status.getBoolean("ready"));
+  }
+
+  @Test
+  @DisplayName("Expect not ready during reconfiguration.")
+  void reconfiguring() {
+    // when
+    JsonObject status = ProbeServer.status(Arrays.asList(
+        module("server", true, DeploymentState.SUCCESS)), true, false);
+
+    // then
+    assertFalse(status.getBoolean("ready"));
+    assertTrue(status.getBoolean("reconfiguring"));
+  }
+
+  @Test
+  @DisplayName("Expect not ready when modules are being shut down.")
+  void stopping() {
+    // when
+    JsonObject status = ProbeServer.status(Arrays.asList(
+        module("server", true, DeploymentState.SUCCESS)), false, true);
+
+    // then
+    assertFalse(status.getBoolean("ready"));
+  }
+
+  private static ModuleDescriptor module(String alias, boolean required, DeploymentState state) {
+    JsonObject config = new JsonObject()
+        .put("config", new JsonObject()
+            .put(alias, new JsonObject()
+                .put("options", new JsonObject().put("required", required))));
+    return ModuleDescriptor.fromConfig(alias, "test:" + alias, config).setState(state);
+  }
+}
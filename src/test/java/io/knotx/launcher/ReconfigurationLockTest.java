@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.reactivex.Completable;
+import io.reactivex.Single;
+import io.vertx.core.VertxOptions;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.test.fakecluster.FakeClusterManager;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class ReconfigurationLockTest {
+
+  @AfterEach
+  void tearDown() {
+    FakeClusterManager.reset();
+  }
+
+  @Test
+  @DisplayName("Expect at most the number of permits reconfigurations running at the same time.")
+  void limitsConcurrentReconfigurations(VertxTestContext testContext, Vertx vertx) {
+    // given
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    ReconfigurationLock first = new ReconfigurationLock(vertx, 2, 50);
+    ReconfigurationLock second = new ReconfigurationLock(vertx, 2, 50);
+    ReconfigurationLock third = new ReconfigurationLock(vertx, 2, 50);
+
+    // when
+    Single.merge(
+        first.guard(slowWork(vertx, running, maxRunning)),
+        second.guard(slowWork(vertx, running, maxRunning)),
+        third.guard(slowWork(vertx, running, maxRunning)))
+        .toList()
+        .subscribe(
+
+            // then
+            results -> testContext.verify(() -> {
+              assertEquals(3, results.size());
+              assertEquals(2, maxRunning.get());
+              testContext.completeNow();
+            }),
+            testContext::failNow);
+  }
+
+  @Test
+  @DisplayName("Expect at most the number of permits cluster nodes reconfiguring at the same time.")
+  void limitsConcurrentReconfigurationsInCluster(VertxTestContext testContext) {
+    // given
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+
+    Single.zip(clusteredVertx(), clusteredVertx(), (firstNode, secondNode) -> {
+      ReconfigurationLock first = new ReconfigurationLock(firstNode, 1, 50);
+      ReconfigurationLock second = new ReconfigurationLock(secondNode, 1, 50);
+
+      // when
+      return Single.merge(
+          first.guard(slowWork(firstNode, running, maxRunning)),
+          second.guard(slowWork(secondNode, running, maxRunning)))
+          .toList()
+          .doFinally(() -> Completable.mergeArray(firstNode.rxClose(), secondNode.rxClose())
+              .onErrorComplete()
+              .subscribe());
+    })
+        .flatMap(work -> work)
+        .subscribe(
+
+            // then
+            results -> testContext.verify(() -> {
+              assertEquals(2, results.size());
+              assertEquals(1, maxRunning.get());
+              testContext.completeNow();
+            }),
+            testContext::failNow);
+  }
+
+  private static Single<Vertx> clusteredVertx() {
+    return Vertx.rxClusteredVertx(new VertxOptions().setClusterManager(new FakeClusterManager()));
+  }
+
+  private static Single<Integer> slowWork(Vertx vertx, AtomicInteger running,
+      AtomicInteger maxRunning) {
+    return Single.defer(() -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      return Single.<Integer>create(emitter ->
+          vertx.setTimer(200, timerId -> emitter.onSuccess(running.getAndDecrement())));
+    });
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import io.reactivex.Completable;
+import io.reactivex.Single;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.reactivex.core.Vertx;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class ReconfigurationSchedulerTest {
+
+  @Test
+  @DisplayName("Expect configurations submitted during a running cycle coalesced to the latest "
+      + "one.")
+  void coalesceWhileRunning(VertxTestContext testContext, Vertx vertx) {
+    // given
+    List<Integer> applied = new ArrayList<>();
+    ReconfigurationScheduler scheduler = new ReconfigurationScheduler(vertx, 0,
+        config -> slowCycle(vertx, applied, config));
+
+    // when
+    vertx.runOnContext(v -> {
+      scheduler.submit(config(1));
+      scheduler.submit(config(2));
+      scheduler.submit(config(3));
+    });
+
+    // then
+    vertx.setTimer(500, timerId -> testContext.verify(() -> {
+      assertEquals(Arrays.asList(1, 3), applied);
+      testContext.completeNow();
+    }));
+  }
+
+  @Test
+  @DisplayName("Expect only the last configuration applied when submitted within the quiet period.")
+  void quietPeriod(VertxTestContext testContext, Vertx vertx) {
+    // given
+    List<Integer> applied = new ArrayList<>();
+    ReconfigurationScheduler scheduler = new ReconfigurationScheduler(vertx, 100,
+        config -> slowCycle(vertx, applied, config));
+
+    // when
+    vertx.runOnContext(v -> {
+      scheduler.submit(config(1));
+      scheduler.submit(config(2));
+      scheduler.submit(config(3));
+    });
+
+    // then
+    vertx.setTimer(500, timerId -> testContext.verify(() -> {
+      assertEquals(Arrays.asList(3), applied);
+      testContext.completeNow();
+    }));
+  }
+
+  @Test
+  @DisplayName("Expect an operation executed after the running cycle and before pending ones.")
+  void operationBetweenCycles(VertxTestContext testContext, Vertx vertx) {
+    // given
+    List<Integer> applied = new ArrayList<>();
+    ReconfigurationScheduler scheduler = new ReconfigurationScheduler(vertx, 0,
+        config -> slowCycle(vertx, applied, config));
+
+    // when
+    vertx.runOnContext(v -> {
+      scheduler.submit(config(1));
+      scheduler.execute(Single.fromCallable(() -> applied.add(0)))
+          .subscribe(added -> testContext.verify(() -> {
+            // then
+            assertEquals(Arrays.asList(1, 0), applied);
+            assertFalse(scheduler.isReconfiguring());
+          }), testContext::failNow);
+    });
+
+    vertx.setTimer(500, timerId -> testContext.verify(() -> {
+      assertEquals(Arrays.asList(1, 0), applied);
+      testContext.completeNow();
+    }));
+  }
+
+  @Test
+  @DisplayName("Expect a cancelled configuration not applied.")
+  void cancelPending(VertxTestContext testContext, Vertx vertx) {
+    // given
+    List<Integer> applied = new ArrayList<>();
+    ReconfigurationScheduler scheduler = new ReconfigurationScheduler(vertx, 0,
+        config -> slowCycle(vertx, applied, config));
+
+    // when
+    vertx.runOnContext(v -> {
+      scheduler.submit(config(1));
+      scheduler.submit(config(2));
+      scheduler.cancelPending();
+    });
+
+    // then
+    vertx.setTimer(500, timerId -> testContext.verify(() -> {
+      assertEquals(Arrays.asList(1), applied);
+      assertFalse(scheduler.isReconfiguring());
+      testContext.completeNow();
+    }));
+  }
+
+  private static Completable slowCycle(Vertx vertx, List<Integer> applied, JsonObject config) {
+    applied.add(config.getInteger("version"));
+    return Completable.create(emitter -> vertx.setTimer(50, timerId -> emitter.onComplete()));
+  }
+
+  private static JsonObject config(int version) {
+    return new JsonObject().put("version", version);
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import static io.knotx.launcher.util.DeploymentOptionsFactory.fromConfFile;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.launcher.metrics.Metrics;
+import io.reactivex.Completable;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.reactivex.core.RxHelper;
+import io.vertx.reactivex.core.Vertx;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+@ExtendWith(VertxExtension.class)
+class RedeploymentTest {
+
+  private static final String TEST_ADDRESS = "test.server";
+  private static final JsonObject SHADOW_MODE = new JsonObject().put("redeployMode", "shadow");
+
+  @Test
+  @DisplayName("Expect a configuration change detected during the initial deployment applied.")
+  void changeDuringInitialDeployment(VertxTestContext testContext, Vertx vertx,
+      @TempDir Path folder) throws IOException {
+    // given
+    Path conf = folder.resolve("application.conf");
+    writeConf(conf, "first", "startDelay = 500");
+    ModuleEvents events = ModuleEvents.record(vertx);
+
+    // when
+    vertx.setTimer(200, timerId -> {
+      try {
+        writeConf(conf, "second-generation", "startDelay = 1");
+      } catch (IOException e) {
+        testContext.failNow(e);
+      }
+    });
+    vertx.rxDeployVerticle(KnotxStarterVerticle.class.getName(),
+        fromConfFile(conf, new JsonObject()))
+        .ignoreElement()
+        // then
+        .andThen(events.await(() -> events.running("second-generation") == 1
+            && events.running("first") == 0, 5000))
+        .subscribe(testContext::completeNow, testContext::failNow);
+  }
+
+  @Test
+  @DisplayName("Expect the previous generation undeployed in shadow mode only after the new one "
+      + "started.")
+  void shadowCutover(VertxTestContext testContext, Vertx vertx, @TempDir Path folder)
+      throws IOException {
+    // given
+    Path conf = folder.resolve("application.conf");
+    writeConf(conf, "first", "address = test.server");
+    ModuleEvents events = ModuleEvents.record(vertx);
+
+    // when
+    vertx.rxDeployVerticle(KnotxStarterVerticle.class.getName(),
+        fromConfFile(conf, SHADOW_MODE))
+        .doOnSuccess(id -> writeConf(conf, "second-generation",
+            "address = test.server, startDelay = 300"))
+        .ignoreElement()
+        .andThen(events.await(() -> events.running("first") == 0, 5000))
+        .andThen(vertx.eventBus().<String>rxRequest(TEST_ADDRESS, "ping"))
+        .subscribe(reply -> testContext.verify(() -> {
+          // then
+          assertEquals("second-generation", reply.body());
+          assertTrue(events.indexOf("start", "second-generation")
+              < events.indexOf("stop", "first"));
+          testContext.completeNow();
+        }), testContext::failNow);
+  }
+
+  @Test
+  @DisplayName("Expect the previous generation kept running in shadow mode when the new one "
+      + "fails.")
+  void shadowRollback(VertxTestContext testContext, Vertx vertx, @TempDir Path folder)
+      throws IOException {
+    // given
+    Path conf = folder.resolve("application.conf");
+    writeConf(conf, "first", "address = test.server");
+    ModuleEvents events = ModuleEvents.record(vertx);
+
+    // when
+    vertx.rxDeployVerticle(KnotxStarterVerticle.class.getName(),
+        fromConfFile(conf, SHADOW_MODE))
+        .doOnSuccess(id -> writeConf(conf, "broken", "address = test.server, failures = 10"))
+        .ignoreElement()
+        .andThen(events.await(() -> events.count("fail", "broken") > 0, 5000))
+        // give the rollback time to complete
+        .andThen(Completable.timer(200, TimeUnit.MILLISECONDS, RxHelper.scheduler(vertx)))
+        .andThen(vertx.eventBus().<String>rxRequest(TEST_ADDRESS, "ping"))
+        .subscribe(reply -> testContext.verify(() -> {
+          // then
+          assertEquals("first", reply.body());
+          assertEquals(1, events.running("first"));
+          assertEquals(0, events.count("stop", "first"));
+          testContext.completeNow();
+        }), testContext::failNow);
+  }
+
+  @Test
+  @DisplayName("Expect only configuration changes that re-deploy modules counted as reloads.")
+  void reloadMetric(VertxTestContext testContext, Vertx vertx, @TempDir Path folder)
+      throws IOException {
+    // given
+    Path conf = folder.resolve("application.conf");
+    writeConf(conf, "first", "startDelay = 1");
+    ModuleEvents events = ModuleEvents.record(vertx);
+
+    // when
+    vertx.rxDeployVerticle(KnotxStarterVerticle.class.getName(),
+        fromConfFile(conf, new JsonObject()))
+        .doOnSuccess(id -> Files.write(conf, Collections.singletonList("unrelated = 1"),
+            StandardOpenOption.APPEND))
+        .ignoreElement()
+        // give the unrelated change time to be applied
+        .andThen(Completable.timer(500, TimeUnit.MILLISECONDS, RxHelper.scheduler(vertx)))
+        .andThen(Completable.fromAction(() -> writeConf(conf, "second-generation",
+            "startDelay = 1")))
+        .andThen(events.await(() -> events.running("second-generation") == 1
+            && events.running("first") == 0, 5000))
+        // give the re-deployment time to complete
+        .andThen(Completable.timer(200, TimeUnit.MILLISECONDS, RxHelper.scheduler(vertx)))
+        .subscribe(() -> testContext.verify(() -> {
+          // then
+          assertTrue(Metrics.inMemory(vertx.getDelegate()).toPrometheusText()
+              .contains("knotx_config_reloads_total 1\n"));
+          testContext.completeNow();
+        }), testContext::failNow);
+  }
+
+  static void writeConf(Path conf, String name, String config) throws IOException {
+    Files.write(conf, Collections.singletonList(
+        "modules.server = \"io.knotx.launcher.ConfigurableVerticle\"\n"
+            + "config.server.options.config { name = " + name + ", " + config + " }"));
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher;
+
+import static io.vertx.core.cli.CLI.create;
+import static io.vertx.core.cli.CommandLine.create;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.Checkpoint;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.test.fakecluster.FakeClusterManager;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class ScaleCommandTest {
+
+  private final List<Vertx> clustered = new ArrayList<>();
+
+  @Test
+  @DisplayName("Expect the command not joining the cluster as a high-availability node.")
+  void notHighlyAvailable() {
+    assertFalse(command(1000).getHA());
+  }
+
+  @Test
+  @DisplayName("Expect the command joining the cluster without the cluster option.")
+  void clustered() {
+    assertTrue(command(1000).isClustered());
+  }
+
+  @Test
+  @DisplayName("Expect every Knot.x node of the cluster scaled when no node is given.")
+  void scaledOnEveryNode(VertxTestContext testContext) {
+    // given
+    Checkpoint scaled = testContext.checkpoint(2);
+    Checkpoint exited = testContext.checkpoint();
+    knotxNode(testContext, message -> {
+      message.reply(message.body());
+      scaled.flag();
+    }, first -> knotxNode(testContext, message -> {
+      message.reply(message.body());
+      scaled.flag();
+    }, second -> clusteredVertx(testContext, vertx ->
+        // when
+        command(1000).scale(vertx, exitCode -> testContext.verify(() -> {
+          // then
+          assertEquals(0, exitCode);
+          exited.flag();
+        })))));
+  }
+
+  @Test
+  @DisplayName("Expect only the Knot.x instance of the given node scaled.")
+  void scaledOnGivenNode(VertxTestContext testContext) {
+    // given
+    knotxNode(testContext, message -> message.reply(message.body()), first ->
+        knotxNode(testContext, message -> testContext.failNow(
+            new AssertionError("Node not given scaled")), second ->
+            clusteredVertx(testContext, vertx -> {
+              ScaleCommand command = command(1000);
+              command.setNode(nodeId(first));
+
+              // when
+              command.scale(vertx, exitCode -> testContext.verify(() -> {
+                // then
+                assertEquals(0, exitCode);
+                testContext.completeNow();
+              }));
+            })));
+  }
+
+  @Test
+  @DisplayName("Expect non-zero exit code when no node of the cluster runs Knot.x.")
+  void noKnotxNode(VertxTestContext testContext) {
+    // given
+    clusteredVertx(testContext, vertx ->
+        // when
+        command(1000).scale(vertx, exitCode -> testContext.verify(() -> {
+          // then
+          assertNotEquals(0, exitCode);
+          testContext.completeNow();
+        })));
+  }
+
+  @Test
+  @DisplayName("Expect zero exit code when the module is scaled.")
+  void scaled(VertxTestContext testContext, Vertx vertx) {
+    // given
+    vertx.eventBus().<JsonObject>consumer(KnotxStarterVerticle.SCALE_ADDRESS,
+        message -> message.reply(message.body()));
+
+    // when
+    command(1000).scale(vertx, exitCode -> testContext.verify(() -> {
+      // then
+      assertEquals(0, exitCode);
+      testContext.completeNow();
+    }));
+  }
+
+  @Test
+  @DisplayName("Expect non-zero exit code when the scale request is rejected.")
+  void rejected(VertxTestContext testContext, Vertx vertx) {
+    // given
+    vertx.eventBus().<JsonObject>consumer(KnotxStarterVerticle.SCALE_ADDRESS,
+        message -> message.fail(0, "Module 'server' is not deployed"));
+
+    // when
+    command(1000).scale(vertx, exitCode -> testContext.verify(() -> {
+      // then
+      assertNotEquals(0, exitCode);
+      testContext.completeNow();
+    }));
+  }
+
+  @Test
+  @DisplayName("Expect non-zero exit code when the scale request is not answered in time.")
+  void timedOut(VertxTestContext testContext, Vertx vertx) {
+    // given
+    vertx.eventBus().<JsonObject>consumer(KnotxStarterVerticle.SCALE_ADDRESS, message -> {
+      // never replies
+    });
+
+    // when
+    command(100).scale(vertx, exitCode -> testContext.verify(() -> {
+      // then
+      assertNotEquals(0, exitCode);
+      testContext.completeNow();
+    }));
+  }
+
+  @AfterEach
+  void tearDown() {
+    clustered.forEach(Vertx::close);
+    clustered.clear();
+    FakeClusterManager.reset();
+  }
+
+  private void knotxNode(VertxTestContext testContext, Handler<Message<JsonObject>> handler,
+      Handler<Vertx> onJoined) {
+    clusteredVertx(testContext, vertx -> vertx.eventBus()
+        .consumer(KnotxStarterVerticle.scaleAddress(nodeId(vertx)), handler)
+        .completionHandler(testContext.succeeding(v -> onJoined.handle(vertx))));
+  }
+
+  private void clusteredVertx(VertxTestContext testContext, Handler<Vertx> onJoined) {
+    Vertx.clusteredVertx(new VertxOptions().setClusterManager(new FakeClusterManager()),
+        testContext.succeeding(vertx -> {
+          clustered.add(vertx);
+          onJoined.handle(vertx);
+        }));
+  }
+
+  private static String nodeId(Vertx vertx) {
+    return ((VertxInternal) vertx).getNodeID();
+  }
+
+  private static ScaleCommand command(long timeout) {
+    ScaleCommand command = new ScaleCommandFactory().create(create(create("scale-knotx")));
+    command.setAlias("server");
+    command.setInstances(2);
+    command.setTimeout(timeout);
+    return command;
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import io.knotx.launcher.metrics.Metrics;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+@ExtendWith(VertxExtension.class)
+class ConfProcessorTest {
+
+  private static final long TIMEOUT = 200L;
+
+  @Test
+  @DisplayName("Expect processing failed when a slow include exceeds the store timeout and the "
+      + "late result ignored.")
+  void timeout(VertxTestContext testContext, Vertx vertx, @TempDir Path folder)
+      throws IOException, InterruptedException {
+    // given
+    // reading a named pipe blocks until something is written to it
+    Path slowInclude = folder.resolve("slow.conf");
+    assumeTrue(mkfifo(slowInclude), "Named pipes are not supported");
+    String path = folder.resolve("application.conf").toString();
+    JsonObject configuration = new JsonObject().put("path", path).put("timeout", TIMEOUT);
+    Buffer input = Buffer.buffer("include required(\"slow.conf\")\nkey = 1");
+    List<AsyncResult<JsonObject>> results = new CopyOnWriteArrayList<>();
+
+    // when
+    new ConfProcessor().process(vertx, configuration, input, results::add);
+
+    // then
+    vertx.setTimer(TIMEOUT * 2, timeoutTimerId -> {
+      testContext.verify(() -> {
+        assertEquals(1, results.size());
+        assertFalse(results.get(0).succeeded());
+        assertEquals("Processing of configuration " + path + " timed out after " + TIMEOUT
+            + " ms", results.get(0).cause().getMessage());
+      });
+      // the include completes late
+      vertx.executeBlocking(future -> {
+        try {
+          Files.write(slowInclude, "other = 2".getBytes(StandardCharsets.UTF_8));
+          future.complete();
+        } catch (IOException e) {
+          future.fail(e);
+        }
+      }, written -> vertx.setTimer(TIMEOUT, lateTimerId -> testContext.verify(() -> {
+        assertEquals(1, results.size());
+        testContext.completeNow();
+      })));
+    });
+  }
+
+  @Test
+  @DisplayName("Expect a store without a path measured under the store format.")
+  void metricsWithoutPath(VertxTestContext testContext, Vertx vertx) {
+    // given
+    Buffer input = Buffer.buffer("key = 1");
+
+    // when
+    new ConfProcessor().process(vertx, new JsonObject(), input, ar -> testContext.verify(() -> {
+
+      // then
+      assertTrue(ar.succeeded());
+      assertTrue(Metrics.inMemory(vertx).toPrometheusText()
+          .contains("knotx_config_size_bytes{store=\"conf\"} 7\n"));
+      testContext.completeNow();
+    }));
+  }
+
+  private static boolean mkfifo(Path file) throws InterruptedException {
+    try {
+      return new ProcessBuilder("mkfifo", file.toString()).start().waitFor() == 0;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+}
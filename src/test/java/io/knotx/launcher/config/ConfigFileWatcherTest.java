@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+@ExtendWith(VertxExtension.class)
+class ConfigFileWatcherTest {
+
+  private static final long DEBOUNCE = 300L;
+
+  @Test
+  @DisplayName("Expect several writes within the debounce period reported once.")
+  void debounce(VertxTestContext testContext, Vertx vertx, @TempDir Path folder)
+      throws IOException {
+    // given
+    Path conf = write(folder.resolve("application.conf"), "key = 0");
+    AtomicInteger reloads = new AtomicInteger();
+    ConfigFileWatcher watcher = new ConfigFileWatcher(vertx, DEBOUNCE,
+        v -> reloads.incrementAndGet());
+    watcher.watch(Collections.singletonList(conf));
+
+    // when
+    vertx.setTimer(50, t1 -> rewrite(conf, "key = 1"));
+    vertx.setTimer(100, t2 -> rewrite(conf, "key = 2"));
+    vertx.setTimer(150, t3 -> rewrite(conf, "key = 3"));
+
+    // then
+    vertx.setTimer(150 + DEBOUNCE * 3, timerId -> testContext.verify(() -> {
+      assertEquals(1, reloads.get());
+      watcher.close();
+      testContext.completeNow();
+    }));
+  }
+
+  @Test
+  @DisplayName("Expect changes of other files in the folder not reported.")
+  void otherFiles(VertxTestContext testContext, Vertx vertx, @TempDir Path folder)
+      throws IOException {
+    // given
+    Path conf = write(folder.resolve("application.conf"), "key = 0");
+    Path other = folder.resolve("other.log");
+    AtomicInteger reloads = new AtomicInteger();
+    ConfigFileWatcher watcher = new ConfigFileWatcher(vertx, DEBOUNCE,
+        v -> reloads.incrementAndGet());
+    watcher.watch(Collections.singletonList(conf));
+
+    // when
+    vertx.setTimer(50, t1 -> rewrite(other, "line 1"));
+    vertx.setTimer(100, t2 -> rewrite(other, "line 2"));
+
+    // then
+    vertx.setTimer(100 + DEBOUNCE * 3, timerId -> testContext.verify(() -> {
+      assertEquals(0, reloads.get());
+      watcher.close();
+      testContext.completeNow();
+    }));
+  }
+
+  @Test
+  @DisplayName("Expect changes of excluded files not reported.")
+  void excludedFiles(VertxTestContext testContext, Vertx vertx, @TempDir Path folder)
+      throws IOException {
+    // given
+    Path conf = write(folder.resolve("application.conf"), "key = 0");
+    AtomicInteger reloads = new AtomicInteger();
+    ConfigFileWatcher watcher = new ConfigFileWatcher(vertx, DEBOUNCE,
+        v -> reloads.incrementAndGet());
+    watcher.watch(Collections.singletonList(conf));
+    watcher.exclude(conf);
+
+    // when
+    vertx.setTimer(50, t1 -> rewrite(conf, "key = 1"));
+    vertx.setTimer(100, t2 -> rewrite(folder.resolve("application.conf123.tmp"), "temp"));
+
+    // then
+    vertx.setTimer(100 + DEBOUNCE * 3, timerId -> testContext.verify(() -> {
+      assertEquals(0, reloads.get());
+      watcher.close();
+      testContext.completeNow();
+    }));
+  }
+
+  @Test
+  @DisplayName("Expect the watching thread stopped when the watcher is closed.")
+  void close(Vertx vertx) throws IOException, InterruptedException {
+    // given
+    ConfigFileWatcher watcher = new ConfigFileWatcher(vertx, DEBOUNCE, v -> {
+    });
+    assertTrue(watcher.isRunning());
+
+    // when
+    watcher.close();
+
+    // then
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (watcher.isRunning() && System.nanoTime() < deadline) {
+      TimeUnit.MILLISECONDS.sleep(10);
+    }
+    assertFalse(watcher.isRunning());
+  }
+
+  private static Path write(Path file, String content) throws IOException {
+    return Files.write(file, Collections.singletonList(content));
+  }
+
+  private static void rewrite(Path file, String content) {
+    try {
+      write(file, content);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
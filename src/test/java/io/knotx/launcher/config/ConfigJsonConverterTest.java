@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigRenderOptions;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ConfigJsonConverterTest {
+
+  private static final String HOCON = "modules { server = \"io.knotx.Server\" }\n"
+      + "config.server.options {\n"
+      + "  instances = 2\n"
+      + "  required = false\n"
+      + "  config {\n"
+      + "    timeout = 3000000000\n"
+      + "    ratio = 1.5\n"
+      + "    empty = null\n"
+      + "    ports = [8080, 8081]\n"
+      + "    routes = [{ path = \"/a\" }, { path = ${base}\"/b\" }]\n"
+      + "  }\n"
+      + "}\n"
+      + "base = \"/api\"\n";
+
+  @Test
+  @DisplayName("Expect the same JSON as rendered and parsed by Vert.x.")
+  void sameAsRendered() {
+    // given
+    Config config = ConfigFactory.parseString(HOCON).resolve();
+    JsonObject expected = new JsonObject(config.root().render(ConfigRenderOptions.concise()
+        .setJson(true).setComments(false).setFormatted(false)));
+
+    // when
+    JsonObject json = ConfigJsonConverter.toJsonObject(config.root());
+
+    // then
+    assertEquals(expected, json);
+  }
+
+  @Test
+  @DisplayName("Expect number types preserved.")
+  void numberTypes() {
+    // when
+    JsonObject options = ConfigJsonConverter
+        .toJsonObject(ConfigFactory.parseString(HOCON).resolve().root())
+        .getJsonObject("config").getJsonObject("server").getJsonObject("options");
+
+    // then
+    assertEquals(Integer.class, options.getValue("instances").getClass());
+    assertEquals(Long.class, options.getJsonObject("config").getValue("timeout").getClass());
+    assertEquals(Double.class, options.getJsonObject("config").getValue("ratio").getClass());
+    assertNull(options.getJsonObject("config").getValue("empty"));
+    assertEquals("/api/b", options.getJsonObject("config").getJsonArray("routes")
+        .getJsonObject(1).getString("path"));
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigParseOptions;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class IncludeCacheTest {
+
+  private static final ConfigParseOptions OPTIONS = ConfigParseOptions.defaults();
+
+  @Test
+  @DisplayName("Expect cached include when the included files have not changed.")
+  void hit(@TempDir Path folder) throws IOException {
+    // given
+    File include = write(folder.resolve("common.conf"), "a = 1");
+    ConfigObject root = ConfigFactory.parseFile(include).root();
+    String key = IncludeCache.key(include, folder.toString(), OPTIONS);
+    IncludeCache cache = new IncludeCache();
+    cache.put(key, root, Collections.singletonList(FileStamp.of(include)));
+
+    // then
+    assertSame(root, cache.get(key).map(IncludeCache.Entry::getRoot).orElse(null));
+  }
+
+  @Test
+  @DisplayName("Expect no cached include when the cache is cleared.")
+  void clear(@TempDir Path folder) throws IOException {
+    // given
+    File include = write(folder.resolve("common.conf"), "a = 1");
+    String key = IncludeCache.key(include, folder.toString(), OPTIONS);
+    IncludeCache cache = new IncludeCache();
+    cache.put(key, ConfigFactory.parseFile(include).root(),
+        Collections.singletonList(FileStamp.of(include)));
+
+    // when
+    cache.clear();
+
+    // then
+    assertFalse(cache.get(key).isPresent());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  @DisplayName("Expect no cached include when a nested include has changed.")
+  void nestedIncludeChanged(@TempDir Path folder) throws IOException {
+    // given
+    File include = write(folder.resolve("common.conf"), "include \"nested.conf\"");
+    File nested = write(folder.resolve("nested.conf"), "a = 1");
+    String key = IncludeCache.key(include, folder.toString(), OPTIONS);
+    IncludeCache cache = new IncludeCache();
+    cache.put(key, ConfigFactory.parseFile(include).root(),
+        Arrays.asList(FileStamp.of(include), FileStamp.of(nested)));
+
+    // when
+    write(nested.toPath(), "a = 12");
+
+    // then
+    assertFalse(cache.get(key).isPresent());
+  }
+
+  @Test
+  @DisplayName("Expect the same file included from different folders cached separately.")
+  void keyContainsSearchFolder(@TempDir Path folder) throws IOException {
+    // given
+    File include = write(folder.resolve("common.conf"), "a = 1");
+
+    // then
+    assertEquals(IncludeCache.key(include, "conf", OPTIONS),
+        IncludeCache.key(new File(folder.toFile(), "./common.conf"), "conf", OPTIONS));
+    assertNotEquals(IncludeCache.key(include, "conf", OPTIONS),
+        IncludeCache.key(include, "other", OPTIONS));
+  }
+
+  @Test
+  @DisplayName("Expect a stale include removed from the cache.")
+  void staleEntryRemoved(@TempDir Path folder) throws IOException {
+    // given
+    File include = write(folder.resolve("common.conf"), "a = 1");
+    String key = IncludeCache.key(include, folder.toString(), OPTIONS);
+    IncludeCache cache = new IncludeCache();
+    cache.put(key, ConfigFactory.parseFile(include).root(),
+        Collections.singletonList(FileStamp.of(include)));
+
+    // when
+    write(include.toPath(), "a = 12");
+
+    // then
+    assertFalse(cache.get(key).isPresent());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  @DisplayName("Expect the least recently used include evicted when the cache is full.")
+  void bounded(@TempDir Path folder) throws IOException {
+    // given
+    IncludeCache cache = new IncludeCache(2);
+    List<String> keys = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      File include = write(folder.resolve("common" + i + ".conf"), "a = " + i);
+      String key = IncludeCache.key(include, folder.toString(), OPTIONS);
+      keys.add(key);
+
+      // when
+      cache.put(key, ConfigFactory.parseFile(include).root(),
+          Collections.singletonList(FileStamp.of(include)));
+    }
+
+    // then
+    assertEquals(2, cache.size());
+    assertFalse(cache.get(keys.get(0)).isPresent());
+    assertTrue(cache.get(keys.get(1)).isPresent());
+    assertTrue(cache.get(keys.get(2)).isPresent());
+  }
+
+  @Test
+  @DisplayName("Expect a change within the same millisecond and with the same size detected.")
+  void subMillisecondChange(@TempDir Path folder) throws IOException {
+    // given
+    File include = write(folder.resolve("common.conf"), "a = 1");
+    long modified = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+    Files.setLastModifiedTime(include.toPath(), FileTime.from(modified, TimeUnit.NANOSECONDS));
+    FileStamp stamp = FileStamp.of(include);
+
+    // when
+    write(include.toPath(), "a = 2");
+    Files.setLastModifiedTime(include.toPath(),
+        FileTime.from(modified + 500_000L, TimeUnit.NANOSECONDS));
+    assumeTrue(Files.getLastModifiedTime(include.toPath()).to(TimeUnit.NANOSECONDS) != modified,
+        "The file system does not support sub-millisecond modification times");
+
+    // then
+    assertFalse(stamp.isCurrent());
+  }
+
+  private static File write(Path path, String content) throws IOException {
+    return Files.write(path, content.getBytes(StandardCharsets.UTF_8)).toFile();
+  }
+}
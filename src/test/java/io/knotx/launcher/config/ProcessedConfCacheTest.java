@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import io.knotx.launcher.property.SystemProperties;
+import io.vertx.core.json.JsonObject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ProcessedConfCacheTest {
+
+  private static final String KEY = "{\"path\":\"application.conf\"}";
+  private static final HashCode INPUT_HASH = Hashing.murmur3_128()
+      .hashString("modules {}", StandardCharsets.UTF_8);
+  private static final JsonObject CONFIGURATION = new JsonObject().put("modules", new JsonObject());
+
+  private final SystemProperties properties = new SystemProperties();
+
+  @Test
+  @DisplayName("Expect cached configuration when input and includes have not changed.")
+  void hit(@TempDir Path folder) throws IOException {
+    // given
+    File include = write(folder.resolve("include.conf"), "a = 1");
+    ProcessedConfCache cache = new ProcessedConfCache();
+    cache.put(KEY, INPUT_HASH, Collections.singletonList(FileStamp.of(include)),
+        Collections.emptyMap(), CONFIGURATION);
+
+    // then
+    assertEquals(CONFIGURATION, cache.get(KEY, INPUT_HASH, properties).orElse(null));
+  }
+
+  @Test
+  @DisplayName("Expect no cached configuration when input has changed.")
+  void inputChanged() {
+    // given
+    ProcessedConfCache cache = new ProcessedConfCache();
+    cache.put(KEY, INPUT_HASH, Collections.emptyList(), Collections.emptyMap(), CONFIGURATION);
+
+    // then
+    assertFalse(cache.get(KEY, Hashing.murmur3_128()
+        .hashString("modules { a = b }", StandardCharsets.UTF_8), properties).isPresent());
+  }
+
+  @Test
+  @DisplayName("Expect no cached configuration when include has changed.")
+  void includeChanged(@TempDir Path folder) throws IOException {
+    // given
+    File include = write(folder.resolve("include.conf"), "a = 1");
+    ProcessedConfCache cache = new ProcessedConfCache();
+    cache.put(KEY, INPUT_HASH, Collections.singletonList(FileStamp.of(include)),
+        Collections.emptyMap(), CONFIGURATION);
+
+    // when
+    write(include.toPath(), "a = 12");
+
+    // then
+    assertFalse(cache.get(KEY, INPUT_HASH, properties).isPresent());
+  }
+
+  @Test
+  @DisplayName("Expect no cached configuration when used system property has changed.")
+  void propertyChanged() {
+    // given
+    Map<String, String> lookups = new HashMap<>();
+    lookups.put("not.existing.property", "someValue");
+    ProcessedConfCache cache = new ProcessedConfCache();
+    cache.put(KEY, INPUT_HASH, Collections.emptyList(), lookups, CONFIGURATION);
+
+    // then
+    assertFalse(cache.get(KEY, INPUT_HASH, properties).isPresent());
+  }
+
+  @Test
+  @DisplayName("Expect cached configuration is a copy.")
+  void copy() {
+    // given
+    ProcessedConfCache cache = new ProcessedConfCache();
+    cache.put(KEY, INPUT_HASH, Collections.emptyList(), Collections.emptyMap(), CONFIGURATION);
+
+    // when
+    cache.get(KEY, INPUT_HASH, properties).ifPresent(json -> json.put("modified", true));
+
+    // then
+    assertTrue(cache.get(KEY, INPUT_HASH, properties)
+        .map(json -> !json.containsKey("modified"))
+        .orElse(false));
+  }
+
+  private static File write(Path path, String content) throws IOException {
+    return Files.write(path, content.getBytes(StandardCharsets.UTF_8)).toFile();
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class InMemoryLauncherMetricsTest {
+
+  @Test
+  @DisplayName("Expect module deployments exported as Prometheus histogram, counter and gauge.")
+  void moduleMetrics() {
+    // given
+    InMemoryLauncherMetrics metrics = new InMemoryLauncherMetrics();
+
+    // when
+    metrics.moduleDeployed("server", TimeUnit.MILLISECONDS.toNanos(20), true, 2);
+    metrics.moduleDeployed("repo\"x", TimeUnit.MILLISECONDS.toNanos(3), false, 1);
+    metrics.moduleUndeployed("server", TimeUnit.MILLISECONDS.toNanos(1), 2);
+    metrics.moduleDeployed("server", TimeUnit.MILLISECONDS.toNanos(7), true, 4);
+    String text = metrics.toPrometheusText();
+
+    // then
+    assertTrue(text.contains("# TYPE knotx_module_deploy_seconds histogram\n"));
+    assertTrue(text.contains(
+        "knotx_module_deploy_seconds_bucket{alias=\"server\",le=\"0.01\"} 1\n"));
+    assertTrue(text.contains(
+        "knotx_module_deploy_seconds_bucket{alias=\"server\",le=\"0.025\"} 2\n"));
+    assertTrue(text.contains("knotx_module_deploy_seconds_count{alias=\"server\"} 2\n"));
+    assertTrue(text.contains("knotx_module_deploy_failures_total{alias=\"repo\\\"x\"} 1\n"));
+    assertTrue(text.contains("knotx_module_instances{alias=\"server\"} 4\n"));
+  }
+
+  @Test
+  @DisplayName("Expect configuration metrics exported.")
+  void configMetrics() {
+    // given
+    InMemoryLauncherMetrics metrics = new InMemoryLauncherMetrics();
+
+    // when
+    metrics.configProcessed("conf/application.conf", TimeUnit.MILLISECONDS.toNanos(40), 2048);
+    metrics.configReloaded();
+    String text = metrics.toPrometheusText();
+
+    // then
+    assertTrue(text.contains(
+        "knotx_config_process_seconds_count{store=\"conf/application.conf\"} 1\n"));
+    assertTrue(text.contains("knotx_config_size_bytes{store=\"conf/application.conf\"} 2048\n"));
+    assertTrue(text.contains("knotx_config_reloads_total 1\n"));
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MetricsTest {
+
+  @Test
+  @DisplayName("Expect each Vert.x instance having its own metrics.")
+  void metricsPerVertxInstance() {
+    // given
+    Vertx first = Vertx.vertx();
+    Vertx second = Vertx.vertx();
+    try {
+      // when
+      Metrics.get(first).configReloaded();
+
+      // then
+      assertSame(Metrics.inMemory(first), Metrics.inMemory(first));
+      assertTrue(Metrics.inMemory(first).toPrometheusText()
+          .contains("knotx_config_reloads_total 1\n"));
+      assertFalse(Metrics.inMemory(second).toPrometheusText()
+          .contains("knotx_config_reloads_total 1\n"));
+    } finally {
+      first.close();
+      second.close();
+    }
+  }
+}
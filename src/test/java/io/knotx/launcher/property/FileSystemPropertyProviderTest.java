@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.property;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileSystemPropertyProviderTest {
+
+  @Test
+  @DisplayName("Expect no properties when the properties file is not defined.")
+  void notDefined() {
+    // when
+    FileSystemPropertyProvider provider = new FileSystemPropertyProvider(null, 1000L);
+
+    // then
+    assertTrue(provider.getProperties().isEmpty());
+    assertFalse(provider.reload());
+  }
+
+  @Test
+  @DisplayName("Expect properties read again only when the file was modified.")
+  void reloadWhenModified(@TempDir Path folder) throws IOException {
+    // given
+    Path file = folder.resolve("secrets.properties");
+    Files.write(file, "password=first".getBytes(StandardCharsets.UTF_8));
+    FileSystemPropertyProvider provider = new FileSystemPropertyProvider(file.toString(), 1000L);
+
+    // when
+    Files.write(file, "password=second-value".getBytes(StandardCharsets.UTF_8));
+
+    // then
+    assertEquals("first", provider.getProperties().getProperty("password"));
+    assertTrue(provider.reload());
+    assertEquals("second-value", provider.getProperties().getProperty("password"));
+    assertFalse(provider.reload());
+  }
+
+  @Test
+  @DisplayName("Expect the file not watched anymore when the provider is closed.")
+  void close(@TempDir Path folder) throws IOException {
+    // given
+    Path file = folder.resolve("secrets.properties");
+    Files.write(file, "password=first".getBytes(StandardCharsets.UTF_8));
+    FileSystemPropertyProvider provider = new FileSystemPropertyProvider(file.toString(), 1000L);
+    provider.setChangeListener(() -> {
+    });
+    assertTrue(provider.isScanning());
+
+    // when
+    provider.close();
+
+    // then
+    assertFalse(provider.isScanning());
+  }
+}
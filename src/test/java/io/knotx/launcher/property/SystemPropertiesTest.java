@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.launcher.property;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import io.knotx.launcher.BadKnotxConfigurationException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SystemPropertiesTest {
+
+  @Test
+  @DisplayName("Expect value from the first provider defining the property.")
+  void firstProviderWins() {
+    // given
+    Properties first = properties("key", "first");
+    Properties second = properties("key", "second");
+    second.setProperty("other", "otherValue");
+
+    // when
+    SystemProperties systemProperties = new SystemProperties(
+        Arrays.<SystemPropertyProvider>asList(() -> first, () -> second));
+
+    // then
+    assertEquals(Optional.of("first"), systemProperties.getProperty("key"));
+    assertEquals(Optional.of("otherValue"), systemProperties.getProperty("other"));
+    assertFalse(systemProperties.getProperty("missing").isPresent());
+  }
+
+  @Test
+  @DisplayName("Expect default provider properties take precedence.")
+  void defaultProviderFirst() {
+    // given
+    String key = System.getProperties().stringPropertyNames().iterator().next();
+    Properties custom = properties(key, "customValue");
+
+    // when
+    SystemProperties systemProperties = new SystemProperties(
+        Arrays.<SystemPropertyProvider>asList(() -> custom, new DefaultSystemPropertyProvider()));
+
+    // then
+    assertEquals(Optional.of(System.getProperty(key)), systemProperties.getProperty(key));
+  }
+
+  @Test
+  @DisplayName("Expect changed properties visible after refresh.")
+  void refresh() {
+    // given
+    Properties properties = properties("key", "value");
+    SystemProperties systemProperties = new SystemProperties(
+        Arrays.<SystemPropertyProvider>asList(() -> properties));
+
+    // when
+    properties.setProperty("key", "changed");
+
+    // then
+    assertEquals(Optional.of("value"), systemProperties.getProperty("key"));
+    systemProperties.refresh();
+    assertEquals(Optional.of("changed"), systemProperties.getProperty("key"));
+  }
+
+  @Test
+  @DisplayName("Expect listeners notified with changed keys when a provider publishes a change.")
+  void changeNotification() {
+    // given
+    AtomicReference<Properties> current = new AtomicReference<>(properties("key", "value"));
+    AtomicReference<Runnable> providerListener = new AtomicReference<>();
+    SystemPropertyProvider provider = new SystemPropertyProvider() {
+      @Override
+      public Properties getProperties() {
+        return current.get();
+      }
+
+      @Override
+      public void setChangeListener(Runnable listener) {
+        providerListener.set(listener);
+      }
+    };
+    SystemProperties systemProperties = new SystemProperties(Arrays.asList(provider));
+    List<Set<String>> notifications = new ArrayList<>();
+    systemProperties.addChangeListener(notifications::add);
+
+    // when
+    Properties changed = properties("key", "value");
+    changed.setProperty("added", "value");
+    current.set(changed);
+    providerListener.get().run();
+    providerListener.get().run();
+
+    // then
+    assertEquals(Optional.of("value"), systemProperties.getProperty("added"));
+    assertEquals(Arrays.asList(ImmutableSet.of("added")), notifications);
+  }
+
+  @Test
+  @DisplayName("Expect typed values converted without truncation.")
+  void typedValues() {
+    // given
+    Properties properties = new Properties();
+    properties.setProperty("int", "42");
+    properties.setProperty("long", "3000000000");
+    properties.setProperty("double", "1.5");
+    properties.setProperty("boolean", "TRUE");
+    properties.setProperty("hex", "0x1F");
+    properties.setProperty("duration", "10s");
+    properties.setProperty("size", "2KiB");
+
+    // when
+    SystemProperties systemProperties = new SystemProperties(
+        Arrays.<SystemPropertyProvider>asList(() -> properties));
+
+    // then
+    assertEquals(Optional.of(42), systemProperties.getTypedProperty("int"));
+    assertEquals(Optional.of(3000000000L), systemProperties.getTypedProperty("long"));
+    assertEquals(Optional.of(1.5d), systemProperties.getTypedProperty("double"));
+    assertEquals(Optional.of(true), systemProperties.getTypedProperty("boolean"));
+    assertEquals(Optional.of("0x1F"), systemProperties.getTypedProperty("hex"));
+    assertEquals(Optional.of(3000000000L), systemProperties.getLong("long"));
+    assertEquals(Optional.of(Duration.ofSeconds(10)), systemProperties.getDuration("duration"));
+    assertEquals(Optional.of(2048L), systemProperties.getBytes("size"));
+    assertThrows(BadKnotxConfigurationException.class, () -> systemProperties.getInt("long"));
+  }
+
+  @Test
+  @DisplayName("Expect converted values memoized until the property changes.")
+  void memoizedValues() {
+    // given
+    Properties properties = properties("timeout", "10s");
+    SystemProperties systemProperties = new SystemProperties(
+        Arrays.<SystemPropertyProvider>asList(() -> properties));
+    Duration first = systemProperties.getDuration("timeout").get();
+
+    // when
+    Duration memoized = systemProperties.getDuration("timeout").get();
+    properties.setProperty("timeout", "20s");
+    systemProperties.refresh();
+
+    // then
+    assertSame(first, memoized);
+    assertEquals(Duration.ofSeconds(20), systemProperties.getDuration("timeout").get());
+  }
+
+  @Test
+  @DisplayName("Expect system properties set after the instance was created visible right away.")
+  void liveSystemProperties() {
+    // given
+    String key = "knotx.test.live." + System.nanoTime();
+    Properties custom = properties(key, "customValue");
+    SystemProperties systemProperties = new SystemProperties(
+        Arrays.<SystemPropertyProvider>asList(new DefaultSystemPropertyProvider(), () -> custom));
+    assertEquals(Optional.of("customValue"), systemProperties.getProperty(key));
+
+    try {
+      // when
+      System.setProperty(key, "15");
+
+      // then
+      assertEquals(Optional.of("15"), systemProperties.getProperty(key));
+      assertEquals(Optional.of(15), systemProperties.getInt(key));
+
+      System.setProperty(key, "16");
+      assertEquals(Optional.of(16), systemProperties.getInt(key));
+    } finally {
+      System.clearProperty(key);
+    }
+    assertEquals(Optional.of("customValue"), systemProperties.getProperty(key));
+  }
+
+  @Test
+  @DisplayName("Expect providers closed with the properties.")
+  void closeProviders() {
+    // given
+    AtomicBoolean closed = new AtomicBoolean();
+    SystemPropertyProvider provider = new SystemPropertyProvider() {
+      @Override
+      public Properties getProperties() {
+        return new Properties();
+      }
+
+      @Override
+      public void close() {
+        closed.set(true);
+      }
+    };
+    SystemProperties systemProperties = new SystemProperties(Arrays.asList(provider));
+
+    // when
+    systemProperties.close();
+
+    // then
+    assertTrue(closed.get());
+  }
+
+  private static Properties properties(String key, String value) {
+    Properties properties = new Properties();
+    properties.setProperty(key, value);
+    return properties;
+  }
+}
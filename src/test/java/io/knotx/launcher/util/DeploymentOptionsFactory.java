@@ -17,9 +17,11 @@ package io.knotx.launcher.util;
 
 import com.google.common.io.Resources;
 import io.vertx.core.DeploymentOptions;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 
 public final class DeploymentOptionsFactory {
 
@@ -39,6 +41,24 @@ public final class DeploymentOptionsFactory {
         new JsonObject(storesConfigTemplate.replaceAll("PATH_TO_CONFIG_FILE", storeConfigPath)));
   }
 
+  /**
+   * Creates the bootstrap configuration with one <pre>conf</pre> file store, scanned for changes
+   * every 50 ms.
+   *
+   * @param confFile - configuration file (may be rewritten by the test to re-deploy modules)
+   * @param launcherOptions - launcher options
+   */
+  public static DeploymentOptions fromConfFile(Path confFile, JsonObject launcherOptions) {
+    return new DeploymentOptions().setConfig(new JsonObject()
+        .put("launcherOptions", launcherOptions)
+        .put("configRetrieverOptions", new JsonObject()
+            .put("scanPeriod", 50)
+            .put("stores", new JsonArray().add(new JsonObject()
+                .put("type", "file")
+                .put("format", "conf")
+                .put("config", new JsonObject().put("path", confFile.toString()))))));
+  }
+
   static String readTextSafe(String path) {
     try {
       return Resources.toString(Resources.getResource(path), StandardCharsets.UTF_8);